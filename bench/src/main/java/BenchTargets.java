@@ -0,0 +1,269 @@
+import algs4.Point2D;
+import algs4.RectHV;
+import algs4.StdRandom;
+
+/**
+ * Implementação de bench.Targets no pacote padrão, com acesso direto a Tour, KdTree etc.
+ */
+public class BenchTargets implements bench.Targets {
+
+    private static final long SEED = 123456789L;
+    private static final double LO = 0.0;
+    private static final double HI = 600.0;
+
+    private PointSet points;
+    private Point[] asPoints;
+    private Point2D[] asPoint2D;
+
+    private KdTree kdTree;
+    private KdTree halfDeleted;
+    private ArrayKdTree arrayKdTree;
+    private double[] qx;
+    private double[] qy;
+    private Point2D[] queries;
+    private double radius;
+    private RectHV[] rects;
+
+    private int[] initialOrder;
+    private CandidateGraph candidates;
+    private DistanceCache[] caches;
+    private double hitRate;
+
+    private Tour tour;
+
+    public void load(String instance) {
+        if (instance.startsWith("random:")) {
+            int n = Integer.parseInt(instance.substring("random:".length()));
+            StdRandom.setSeed(SEED);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = StdRandom.uniformDouble(LO, HI);
+                ys[i] = StdRandom.uniformDouble(LO, HI);
+            }
+            points = new PointSet((int) HI, (int) HI, xs, ys, n);
+        } else {
+            points = Instances.load(instance);
+        }
+        int n = points.size();
+        asPoints = new Point[n];
+        asPoint2D = new Point2D[n];
+        for (int i = 0; i < n; i++) {
+            asPoints[i] = points.point(i);
+            asPoint2D[i] = new Point2D(points.x(i), points.y(i));
+        }
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public double insertNaive() {
+        Tour t = new Tour();
+        for (Point p : asPoints) t.insertNearestNaive(p);
+        return t.length();
+    }
+
+    public double insertKd() {
+        Tour t = new Tour(new KdTree());
+        for (Point p : asPoints) t.insertNearestKd(p);
+        return t.length();
+    }
+
+    public double insertArrayKd() {
+        Tour t = new Tour(new ArrayKdTree(points.size()));
+        for (Point p : asPoints) t.insertNearestKd(p);
+        return t.length();
+    }
+
+    public double insertIndexed() {
+        IndexedTour t = new IndexedTour(points);
+        t.insertAll();
+        return t.length();
+    }
+
+    public double hilbertTour() {
+        return HilbertOrder.tour(points).length();
+    }
+
+    public int insertKdTree() {
+        KdTree tree = new KdTree();
+        for (Point2D p : asPoint2D) tree.insert(p);
+        return tree.size();
+    }
+
+    public int insertArrayKdTree() {
+        ArrayKdTree tree = new ArrayKdTree(points.size());
+        for (int i = 0; i < points.size(); i++) tree.insert(points.x(i), points.y(i));
+        return tree.size();
+    }
+
+    public int buildArrayKdTree() {
+        return ArrayKdTree.build(points).size();
+    }
+
+    public void prepareNearest(int count) {
+        kdTree = new KdTree();
+        for (Point2D p : asPoint2D) kdTree.insert(p);
+        halfDeleted = new KdTree();
+        for (Point2D p : asPoint2D) halfDeleted.insert(p);
+        for (int i = 0; i < asPoint2D.length; i += 2) halfDeleted.delete(asPoint2D[i]);
+        arrayKdTree = ArrayKdTree.build(points);
+        StdRandom.setSeed(SEED + 1);
+        qx = new double[count];
+        qy = new double[count];
+        queries = new Point2D[count];
+        for (int i = 0; i < count; i++) {
+            qx[i] = StdRandom.uniformDouble(0, points.width());
+            qy[i] = StdRandom.uniformDouble(0, points.height());
+            queries[i] = new Point2D(qx[i], qy[i]);
+        }
+    }
+
+    public double nearestKdTree() {
+        double sum = 0.0;
+        for (Point2D q : queries) sum += kdTree.nearest(q).x();
+        return sum;
+    }
+
+    public double nearestKdTreeHalfDeleted() {
+        double sum = 0.0;
+        for (Point2D q : queries) sum += halfDeleted.nearest(q).x();
+        return sum;
+    }
+
+    public double nearestArrayKdTree() {
+        double sum = 0.0;
+        for (int i = 0; i < qx.length; i++) sum += arrayKdTree.x(arrayKdTree.nearest(qx[i], qy[i]));
+        return sum;
+    }
+
+    public void prepareRange(double expected) {
+        double area = (double) points.width() * points.height();
+        radius = Math.sqrt(expected * area / (Math.PI * points.size()));
+        double side = Math.sqrt(expected * area / points.size());
+        rects = new RectHV[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            rects[i] = new RectHV(qx[i] - side / 2, qy[i] - side / 2, qx[i] + side / 2, qy[i] + side / 2);
+        }
+    }
+
+    public int knnKdTree(int k) {
+        int total = 0;
+        for (Point2D q : queries) total += kdTree.nearest(q, k).length;
+        return total;
+    }
+
+    // Varredura com o mesmo heap máximo limitado a k (distâncias ao quadrado).
+    public int knnBrute(int k) {
+        double[] heap = new double[k];
+        int total = 0;
+        for (int i = 0; i < qx.length; i++) {
+            int count = 0;
+            for (int j = 0; j < points.size(); j++) {
+                double dx = points.x(j) - qx[i];
+                double dy = points.y(j) - qy[i];
+                double d = dx * dx + dy * dy;
+                if (count < k) {
+                    heap[count] = d;
+                    for (int c = count++; c > 0 && heap[(c - 1) / 2] < heap[c]; c = (c - 1) / 2) {
+                        double t = heap[c];
+                        heap[c] = heap[(c - 1) / 2];
+                        heap[(c - 1) / 2] = t;
+                    }
+                } else if (d < heap[0]) {
+                    heap[0] = d;
+                    for (int c = 0; 2 * c + 1 < k; ) {
+                        int m = 2 * c + 1;
+                        if (m + 1 < k && heap[m + 1] > heap[m]) m++;
+                        if (heap[c] >= heap[m]) break;
+                        double t = heap[c];
+                        heap[c] = heap[m];
+                        heap[m] = t;
+                        c = m;
+                    }
+                }
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    public int radiusKdTree() {
+        int total = 0;
+        for (Point2D q : queries) total += kdTree.range(q, radius).size();
+        return total;
+    }
+
+    public int radiusBrute() {
+        double r2 = radius * radius;
+        int total = 0;
+        for (int i = 0; i < qx.length; i++) {
+            for (int j = 0; j < points.size(); j++) {
+                double dx = points.x(j) - qx[i];
+                double dy = points.y(j) - qy[i];
+                if (dx * dx + dy * dy <= r2) total++;
+            }
+        }
+        return total;
+    }
+
+    public int rectKdTree() {
+        int total = 0;
+        for (RectHV r : rects) total += kdTree.range(r).size();
+        return total;
+    }
+
+    public int rectBrute() {
+        int total = 0;
+        for (RectHV r : rects) {
+            for (int j = 0; j < points.size(); j++) {
+                double x = points.x(j);
+                double y = points.y(j);
+                if (x >= r.xmin() && x <= r.xmax() && y >= r.ymin() && y <= r.ymax()) total++;
+            }
+        }
+        return total;
+    }
+
+    public void prepareLocalSearch() {
+        IndexedTour t = new IndexedTour(points);
+        t.insertAll();
+        initialOrder = t.order();
+        candidates = CandidateGraph.nearest(points, 10);
+        caches = new DistanceCache[] {
+            new DistanceCache(points, candidates, false, false),
+            new DistanceCache(points, candidates, true, false),
+            new DistanceCache(points, candidates, true, true),
+        };
+    }
+
+    public double localSearch(boolean neighbors, boolean pairs) {
+        DistanceCache distances = caches[pairs ? 2 : neighbors ? 1 : 0];
+        distances.clear();
+        ArrayTourOrder order = new ArrayTourOrder(initialOrder);
+        double gain = new TwoOpt(distances).optimize(order);
+        gain += new OrOpt(distances).optimize(order);
+        if (pairs) hitRate = distances.hitRate();
+        return points.tourLength(initialOrder) - gain;
+    }
+
+    public double localSearchHitRate() {
+        return hitRate;
+    }
+
+    public void prepareTour() {
+        tour = new Tour(new ArrayKdTree(points.size()));
+        for (Point p : asPoints) tour.insertNearestKd(p);
+    }
+
+    public double tourLength() {
+        tour.setVerify(false);
+        return tour.length();
+    }
+
+    public double tourLengthVerified() {
+        tour.setVerify(true);
+        return tour.length();
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 2-opt + Or-opt sem cache, só com o vetor das distâncias aos candidatos e com ele
+ * mais a tabela de pares do DistanceCache. O cache é construído uma vez, fora da
+ * medição, como na busca local de TSPImprover; a tabela é esvaziada a cada chamada.
+ * O comprimento final (igual nos três) e a taxa de acerto da tabela são impressos
+ * no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class DistanceCacheBench {
+
+    @Param({"data/usa13509.txt", "data/tsp85900.txt"})
+    public String instance;
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.create(instance);
+        targets.prepareLocalSearch();
+        System.out.printf("%n%s: comprimento sem cache = %.4f, candidatos = %.4f, com a tabela = %.4f",
+                instance, targets.localSearch(false, false), targets.localSearch(true, false),
+                targets.localSearch(true, true));
+        System.out.printf(" (acerto da tabela = %.1f%%)%n", 100.0 * targets.localSearchHitRate());
+    }
+
+    @Benchmark
+    public double uncached() {
+        return targets.localSearch(false, false);
+    }
+
+    @Benchmark
+    public double neighbors() {
+        return targets.localSearch(true, false);
+    }
+
+    @Benchmark
+    public double neighborsAndPairs() {
+        return targets.localSearch(true, true);
+    }
+}
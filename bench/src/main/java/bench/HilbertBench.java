@@ -0,0 +1,51 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ciclo pela curva de Hilbert contra Tour.insertNearestKd, em todas as instâncias de
+ * data/. O JMH mede o tempo; o comprimento dos dois ciclos é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class HilbertBench {
+
+    @Param({"data/tsp10.txt", "data/tsp100.txt", "data/tsp1000.txt", "data/usa13509.txt",
+            "data/tsp85900.txt", "random:1000000"})
+    public String instance;
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.create(instance);
+        System.out.printf("%n%s: comprimento hilbert = %.4f, insertNearestKd = %.4f%n",
+                instance, targets.hilbertTour(), targets.insertKd());
+    }
+
+    @Benchmark
+    public double hilbertTour() {
+        return targets.hilbertTour();
+    }
+
+    @Benchmark
+    public double insertNearestKd() {
+        return targets.insertKd();
+    }
+}
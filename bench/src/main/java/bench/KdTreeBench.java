@@ -0,0 +1,87 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * insert/nearest das duas KdTree. Os benchmarks de inserção medem a carga de todos
+ * os pontos (ms por carga); os de nearest, o tempo médio por consulta (ns).
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class KdTreeBench {
+
+    private static final int QUERIES = 10_000;
+
+    @Param({"data/tsp1000.txt", "data/usa13509.txt", "data/tsp85900.txt",
+            "random:1000", "random:10000", "random:100000", "random:1000000"})
+    public String instance;
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.create(instance);
+        targets.prepareNearest(QUERIES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int kdTreeInsert() {
+        return targets.insertKdTree();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int arrayKdTreeInsert() {
+        return targets.insertArrayKdTree();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int arrayKdTreeBuild() {
+        return targets.buildArrayKdTree();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(QUERIES)
+    public double kdTreeNearest() {
+        return targets.nearestKdTree();
+    }
+
+    // Mesma árvore com metade dos pontos removida (delete marca e poda por contagem).
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(QUERIES)
+    public double kdTreeNearestHalfDeleted() {
+        return targets.nearestKdTreeHalfDeleted();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(QUERIES)
+    public double arrayKdTreeNearest() {
+        return targets.nearestArrayKdTree();
+    }
+}
@@ -0,0 +1,43 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tour.insertNearestNaive, referência para TourInsertionBench. É O(n²), por isso
+ * só roda nas instâncias de até ~10^4 pontos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class NaiveInsertionBench {
+
+    @Param({"data/tsp1000.txt", "data/usa13509.txt", "random:1000", "random:10000"})
+    public String instance;
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.create(instance);
+    }
+
+    @Benchmark
+    public double insertNearestNaive() {
+        return targets.insertNaive();
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * k vizinhos mais próximos, pontos num raio e pontos num retângulo: KdTree contra a
+ * varredura de todos os pontos. Raio e retângulo cobrem ~EXPECTED pontos em média.
+ * Tempo médio por consulta (ns).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class RangeQueryBench {
+
+    private static final int QUERIES = 1_000;
+    private static final double EXPECTED = 10.0;
+
+    @Param({"data/tsp1000.txt", "data/usa13509.txt", "data/tsp85900.txt", "random:100000"})
+    public String instance;
+
+    @Param({"10"})
+    public int k;
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.create(instance);
+        targets.prepareNearest(QUERIES);
+        targets.prepareRange(EXPECTED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int knnKdTree() {
+        return targets.knnKdTree(k);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int knnBrute() {
+        return targets.knnBrute(k);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int radiusKdTree() {
+        return targets.radiusKdTree();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int radiusBrute() {
+        return targets.radiusBrute();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int rectKdTree() {
+        return targets.rectKdTree();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int rectBrute() {
+        return targets.rectBrute();
+    }
+}
@@ -0,0 +1,87 @@
+package bench;
+
+/**
+ * Ponte entre os benchmarks e as classes do projeto, que estão no pacote padrão
+ * (o JMH não aceita benchmarks no pacote padrão, e um pacote nomeado não enxerga
+ * classes do pacote padrão). A implementação, BenchTargets, fica no pacote padrão e
+ * é carregada uma vez por nome; as chamadas seguintes são chamadas de interface comuns.
+ */
+public interface Targets {
+
+    // Arquivo de instância (caminho relativo à raiz do projeto) ou "random:N".
+    void load(String instance);
+
+    int size();
+
+    double insertNaive();
+
+    double insertKd();
+
+    double insertArrayKd();
+
+    double insertIndexed();
+
+    // Ciclo pela curva de Hilbert (HilbertOrder.tour), devolvido como Tour.
+    double hilbertTour();
+
+    int insertKdTree();
+
+    int insertArrayKdTree();
+
+    int buildArrayKdTree();
+
+    // Constrói as duas árvores com todos os pontos (e uma KdTree com metade deles
+    // removida) e sorteia as consultas.
+    void prepareNearest(int queries);
+
+    double nearestKdTree();
+
+    double nearestKdTreeHalfDeleted();
+
+    double nearestArrayKdTree();
+
+    // Consultas k-NN, por raio e por retângulo (KdTree) e as mesmas por varredura.
+    // O raio e o lado do retângulo são escolhidos para ~expected pontos por consulta.
+    void prepareRange(double expected);
+
+    int knnKdTree(int k);
+
+    int knnBrute(int k);
+
+    int radiusKdTree();
+
+    int radiusBrute();
+
+    int rectKdTree();
+
+    int rectBrute();
+
+    // Ciclo por inserção (IndexedTour), listas dos 10 vizinhos e os DistanceCache
+    // (construídos uma vez) para a busca local.
+    void prepareLocalSearch();
+
+    // 2-opt seguida de Or-opt sobre uma cópia do ciclo preparado, com os níveis do
+    // DistanceCache escolhidos (vetor dos candidatos, tabela de pares). Devolve o comprimento.
+    double localSearch(boolean neighbors, boolean pairs);
+
+    // Taxa de acerto da tabela de pares na última chamada de localSearch com pairs.
+    double localSearchHitRate();
+
+    // Constrói (uma vez) o Tour medido por tourLength().
+    void prepareTour();
+
+    double tourLength();
+
+    // Tour.length() com setVerify(true), que refaz a soma percorrendo o ciclo.
+    double tourLengthVerified();
+
+    static Targets create(String instance) {
+        try {
+            Targets targets = (Targets) Class.forName("BenchTargets").getDeclaredConstructor().newInstance();
+            targets.load(instance);
+            return targets;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchTargets não encontrado", e);
+        }
+    }
+}
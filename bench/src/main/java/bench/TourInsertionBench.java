@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construção do ciclo inteiro por inserção pelo vizinho mais próximo com índice espacial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TourInsertionBench {
+
+    @Param({"data/tsp1000.txt", "data/usa13509.txt", "data/tsp85900.txt",
+            "random:1000", "random:10000", "random:100000", "random:1000000"})
+    public String instance;
+
+    private Targets targets;
+
+    @Setup
+    public void setup() {
+        targets = Targets.create(instance);
+    }
+
+    @Benchmark
+    public double insertNearestKd() {
+        return targets.insertKd();
+    }
+
+    @Benchmark
+    public double insertNearestArrayKd() {
+        return targets.insertArrayKd();
+    }
+
+    @Benchmark
+    public double insertIndexed() {
+        return targets.insertIndexed();
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Fila FIFO de cidades a examinar pela busca local. O bit "don't look" de uma cidade
+ * é simplesmente não estar na fila: push() ignora cidades que já estão nela.
+ */
+class ActiveQueue {
+
+    private final int[] queue;
+    private final boolean[] queued;
+    private int head;
+    private int count;
+
+    ActiveQueue(int n) {
+        queue = new int[n];
+        queued = new boolean[n];
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    void push(int city) {
+        if (queued[city]) return;
+        queued[city] = true;
+        int tail = head + count;
+        if (tail >= queue.length) tail -= queue.length;
+        queue[tail] = city;
+        count++;
+    }
+
+    int pop() {
+        int city = queue[head];
+        queued[city] = false;
+        if (++head == queue.length) head = 0;
+        count--;
+        return city;
+    }
+}
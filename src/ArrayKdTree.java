@@ -0,0 +1,396 @@
+import algs4.Point2D;
+import java.util.Arrays;
+
+/**
+ * KdTree armazenada em vetores primitivos: as coordenadas ficam em double[]
+ * e os filhos de cada nó são índices inteiros, sem um objeto Node/RectHV por ponto.
+ * O id de um ponto é a posição dele nesses vetores (ordem de inserção, ou o
+ * índice de entrada quando a árvore é construída com build()).
+ *
+ * remove(id) apenas marca o ponto como removido; cada nó guarda quantos pontos vivos
+ * há na sua subárvore, e as buscas descartam subárvores sem nenhum. Quando mais da
+ * metade dos nós da árvore está removida, ela é reconstruída (balanceada) só com os
+ * vivos. Os ids continuam válidos: size() conta todos os ids, live() só os pontos
+ * não removidos.
+ */
+public class ArrayKdTree implements PointIndex {
+
+    private static final int NONE = -1;
+
+    // Fração de nós removidos na árvore a partir da qual ela é reconstruída.
+    private static final double REBUILD_FRACTION = 0.5;
+
+    private double[] xs;
+    private double[] ys;
+    private int[] lb;
+    private int[] rt;
+    private int[] live;         // pontos não removidos na subárvore do nó
+    private boolean[] removed;
+    private int dead;           // nós removidos ainda ligados à árvore
+    private int root;
+    private int size;
+
+    public ArrayKdTree() {
+        this(16);
+    }
+
+    public ArrayKdTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        xs = new double[capacity];
+        ys = new double[capacity];
+        lb = new int[capacity];
+        rt = new int[capacity];
+        live = new int[capacity];
+        removed = new boolean[capacity];
+        root = NONE;
+        size = 0;
+    }
+
+    /**
+     * Constrói uma árvore balanceada (divisão pela mediana) com todos os pontos do
+     * conjunto. O id de cada ponto é o seu índice.
+     */
+    public static ArrayKdTree build(PointSet points) {
+        int n = points.size();
+        ArrayKdTree tree = new ArrayKdTree(n);
+        for (int i = 0; i < n; i++) {
+            tree.xs[i] = points.x(i);
+            tree.ys[i] = points.y(i);
+        }
+        return tree.buildAll(n);
+    }
+
+    private ArrayKdTree buildAll(int n) {
+        size = n;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = i;
+        root = build(ids, 0, n, true);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return live() == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Número de pontos não removidos.
+    public int live() {
+        return root == NONE ? 0 : live[root];
+    }
+
+    public boolean isRemoved(int id) {
+        return removed[id];
+    }
+
+    /**
+     * Marca o ponto id como removido. Devolve false se ele já estava removido.
+     */
+    public boolean remove(int id) {
+        if (removed[id]) return false;
+        removed[id] = true;
+        addToPath(id, -1);
+        dead++;
+        if (dead > REBUILD_FRACTION * (dead + live())) rebuild();
+        return true;
+    }
+
+    public boolean delete(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("ponto nulo");
+        int id = indexOf(p.x(), p.y());
+        return id != NONE && remove(id);
+    }
+
+    // Refaz a árvore só com os pontos vivos. Os removidos ficam fora dela (e insert
+    // passa a criar um id novo se um deles for inserido de novo).
+    private void rebuild() {
+        int[] ids = new int[live()];
+        int m = 0;
+        for (int id = 0; id < size; id++) {
+            if (!removed[id]) ids[m++] = id;
+        }
+        root = build(ids, 0, m, true);
+        dead = 0;
+    }
+
+    // Soma delta ao contador de pontos vivos de cada nó do caminho da raiz até id.
+    private void addToPath(int id, int delta) {
+        double x = xs[id];
+        double y = ys[id];
+        int node = root;
+        boolean vertical = true;
+        while (true) {
+            live[node] += delta;
+            if (node == id) return;
+            boolean less = vertical ? x < xs[node] : y < ys[node];
+            node = less ? lb[node] : rt[node];
+            vertical = !vertical;
+        }
+    }
+
+    public double x(int id) {
+        return xs[id];
+    }
+
+    public double y(int id) {
+        return ys[id];
+    }
+
+    public void insert(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("ponto nulo");
+        insert(p.x(), p.y());
+    }
+
+    /**
+     * Insere (x, y) e devolve o id do ponto. Se o ponto já existir, devolve o id existente
+     * (e, se ele tinha sido removido, volta a considerá-lo vivo).
+     */
+    public int insert(double x, double y) {
+        if (root == NONE) {
+            root = add(x, y);
+            live[root] = 1;
+            return root;
+        }
+        int node = root;
+        boolean vertical = true;
+        while (true) {
+            if (xs[node] == x && ys[node] == y) {
+                if (removed[node]) {
+                    removed[node] = false;
+                    dead--;
+                    addToPath(node, +1);
+                }
+                return node;
+            }
+            boolean less = vertical ? x < xs[node] : y < ys[node];
+            int child = less ? lb[node] : rt[node];
+            if (child == NONE) {
+                int id = add(x, y);
+                if (less) lb[node] = id;
+                else rt[node] = id;
+                addToPath(id, +1);
+                return id;
+            }
+            node = child;
+            vertical = !vertical;
+        }
+    }
+
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("ponto nulo");
+        return indexOf(p.x(), p.y()) != NONE;
+    }
+
+    /**
+     * Id do ponto (x, y), ou -1 se ele não estiver na árvore (ou tiver sido removido).
+     */
+    public int indexOf(double x, double y) {
+        int node = root;
+        boolean vertical = true;
+        while (node != NONE) {
+            if (xs[node] == x && ys[node] == y && !removed[node]) return node;
+            boolean less = vertical ? x < xs[node] : y < ys[node];
+            node = less ? lb[node] : rt[node];
+            vertical = !vertical;
+        }
+        return NONE;
+    }
+
+    public Point2D nearest(Point2D query) {
+        if (query == null) throw new IllegalArgumentException("ponto nulo");
+        int id = nearest(query.x(), query.y());
+        return id == NONE ? null : new Point2D(xs[id], ys[id]);
+    }
+
+    /**
+     * Id do ponto vivo mais próximo de (qx, qy), ou -1 se não houver nenhum.
+     */
+    public int nearest(double qx, double qy) {
+        return nearest(root, qx, qy, true, NONE);
+    }
+
+    private int nearest(int node, double qx, double qy, boolean vertical, int champion) {
+        if (node == NONE || live[node] == 0) return champion;
+
+        if (!removed[node] && (champion == NONE
+                || distanceSquared(node, qx, qy) < distanceSquared(champion, qx, qy))) {
+            champion = node;
+        }
+
+        double diff = vertical ? qx - xs[node] : qy - ys[node];
+        int first = (diff < 0) ? lb[node] : rt[node];
+        int second = (diff < 0) ? rt[node] : lb[node];
+
+        champion = nearest(first, qx, qy, !vertical, champion);
+        if (champion == NONE || diff * diff < distanceSquared(champion, qx, qy)) {
+            champion = nearest(second, qx, qy, !vertical, champion);
+        }
+        return champion;
+    }
+
+    /**
+     * Os k pontos mais próximos de (qx, qy). Os ids vão para ids[] e as distâncias ao
+     * quadrado para dist2[], em ordem crescente; os dois vetores são fornecidos pelo
+     * chamador (tamanho >= k) e usados como heap máximo durante a busca.
+     * Devolve quantos pontos foram encontrados (min(k, live()): os removidos não contam).
+     */
+    public int nearest(double qx, double qy, int k, int[] ids, double[] dist2) {
+        if (root == NONE || k <= 0) return 0;
+        int count = nearest(root, qx, qy, true, k, ids, dist2, 0);
+        // Heapsort: retira o maior para o fim até sobrar um elemento.
+        for (int last = count - 1; last > 0; last--) {
+            swap(ids, dist2, 0, last);
+            siftDown(ids, dist2, last);
+        }
+        return count;
+    }
+
+    private int nearest(int node, double qx, double qy, boolean vertical, int k,
+                        int[] ids, double[] dist2, int count) {
+        if (node == NONE || live[node] == 0) return count;
+
+        // Um nó removido não entra no heap, mas a subárvore dele ainda pode ter pontos vivos.
+        if (!removed[node]) {
+            double d = distanceSquared(node, qx, qy);
+            if (count < k) {
+                ids[count] = node;
+                dist2[count] = d;
+                siftUp(ids, dist2, count++);
+            } else if (d < dist2[0]) {
+                ids[0] = node;
+                dist2[0] = d;
+                siftDown(ids, dist2, count);
+            }
+        }
+
+        double diff = vertical ? qx - xs[node] : qy - ys[node];
+        int first = (diff < 0) ? lb[node] : rt[node];
+        int second = (diff < 0) ? rt[node] : lb[node];
+
+        count = nearest(first, qx, qy, !vertical, k, ids, dist2, count);
+        if (count < k || diff * diff < dist2[0]) {
+            count = nearest(second, qx, qy, !vertical, k, ids, dist2, count);
+        }
+        return count;
+    }
+
+    /**
+     * Ids dos pontos a distância <= radius de (qx, qy), em ordem qualquer, gravados
+     * em ids[] (que deve ter espaço para todos eles). Devolve quantos foram encontrados.
+     */
+    public int within(double qx, double qy, double radius, int[] ids) {
+        if (root == NONE) return 0;
+        return within(root, qx, qy, true, radius * radius, ids, 0);
+    }
+
+    private int within(int node, double qx, double qy, boolean vertical, double r2, int[] ids, int count) {
+        while (node != NONE && live[node] > 0) {
+            if (!removed[node] && distanceSquared(node, qx, qy) <= r2) ids[count++] = node;
+            double diff = vertical ? qx - xs[node] : qy - ys[node];
+            int near = (diff < 0) ? lb[node] : rt[node];
+            int far = (diff < 0) ? rt[node] : lb[node];
+            if (diff * diff <= r2) count = within(far, qx, qy, !vertical, r2, ids, count);
+            node = near;
+            vertical = !vertical;
+        }
+        return count;
+    }
+
+    private static void siftUp(int[] ids, double[] dist2, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (dist2[parent] >= dist2[i]) return;
+            swap(ids, dist2, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] ids, double[] dist2, int size) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && dist2[child + 1] > dist2[child]) child++;
+            if (dist2[i] >= dist2[child]) return;
+            swap(ids, dist2, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] ids, double[] dist2, int i, int j) {
+        int t = ids[i];
+        ids[i] = ids[j];
+        ids[j] = t;
+        double d = dist2[i];
+        dist2[i] = dist2[j];
+        dist2[j] = d;
+    }
+
+    private double distanceSquared(int id, double qx, double qy) {
+        double dx = xs[id] - qx;
+        double dy = ys[id] - qy;
+        return dx * dx + dy * dy;
+    }
+
+    private int add(double x, double y) {
+        if (size == xs.length) grow();
+        xs[size] = x;
+        ys[size] = y;
+        lb[size] = NONE;
+        rt[size] = NONE;
+        live[size] = 0;
+        removed[size] = false;
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = 2 * xs.length;
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        lb = Arrays.copyOf(lb, capacity);
+        rt = Arrays.copyOf(rt, capacity);
+        live = Arrays.copyOf(live, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+    }
+
+    // Constrói a subárvore com ids[lo, hi) e devolve a raiz.
+    // Pontos com coordenada igual à da mediana vão sempre para a direita,
+    // mantendo a mesma regra de descida de insert() e indexOf().
+    private int build(int[] ids, int lo, int hi, boolean vertical) {
+        if (lo >= hi) return NONE;
+        int first = select(ids, lo, hi - 1, (lo + hi) >>> 1, vertical ? xs : ys);
+        int node = ids[first];
+        lb[node] = build(ids, lo, first, !vertical);
+        rt[node] = build(ids, first + 1, hi, !vertical);
+        live[node] = 1 + (lb[node] == NONE ? 0 : live[lb[node]]) + (rt[node] == NONE ? 0 : live[rt[node]]);
+        return node;
+    }
+
+    // Quickselect com partição em três vias (muitas coordenadas repetidas nas instâncias
+    // de perfuração). Deixa o elemento de ordem k no lugar e devolve o primeiro índice
+    // com a mesma chave: tudo antes dele é estritamente menor.
+    private static int select(int[] ids, int lo, int hi, int k, double[] key) {
+        while (hi >= lo) {
+            double pivot = key[ids[(lo + hi) >>> 1]];
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                double v = key[ids[i]];
+                if (v < pivot) swap(ids, lt++, i++);
+                else if (v > pivot) swap(ids, i, gt--);
+                else i++;
+            }
+            if (k < lt) hi = lt - 1;
+            else if (k > gt) lo = gt + 1;
+            else return lt;
+        }
+        return k;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * TourOrder em vetor: tour[posição] = cidade e pos[cidade] = posição.
+ * next/prev/between são O(1); reverse inverte o menor entre o caminho pedido e o
+ * seu complemento (o ciclo resultante é o mesmo), custando no máximo n/2 trocas.
+ */
+public class ArrayTourOrder implements TourOrder {
+
+    private final int[] tour;
+    private final int[] pos;
+    private final int n;
+
+    public ArrayTourOrder(int[] order) {
+        n = order.length;
+        tour = order.clone();
+        pos = new int[n];
+        for (int i = 0; i < n; i++) {
+            pos[tour[i]] = i;
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int next(int city) {
+        int i = pos[city] + 1;
+        return tour[i == n ? 0 : i];
+    }
+
+    public int prev(int city) {
+        int i = pos[city];
+        return tour[i == 0 ? n - 1 : i - 1];
+    }
+
+    public boolean between(int a, int b, int c) {
+        int pa = pos[a], pb = pos[b], pc = pos[c];
+        if (pa <= pc) return pa <= pb && pb <= pc;
+        return pb >= pa || pb <= pc;
+    }
+
+    public void reverse(int a, int b) {
+        int i = pos[a];
+        int j = pos[b];
+        int len = j - i;
+        if (len < 0) len += n;
+        len++;
+        if (2 * len > n) {
+            // Inverter o complemento (de next(b) até prev(a)) dá o mesmo ciclo.
+            i = j + 1;
+            j = pos[a] - 1;
+            len = n - len;
+        }
+        for (int s = 0; s < len / 2; s++) {
+            int p = i + s;
+            int q = j - s;
+            if (p >= n) p -= n;
+            if (q < 0) q += n;
+            int ci = tour[p];
+            int cj = tour[q];
+            tour[p] = cj;
+            pos[cj] = p;
+            tour[q] = ci;
+            pos[ci] = q;
+        }
+    }
+
+    public int[] toArray() {
+        return tour.clone();
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import algs4.StdOut;
+
+/**
+ * Formato binário das instâncias (little-endian), para não converter texto decimal a cada execução.
+ *
+ *   offset  tamanho  campo
+ *   0       4        assinatura "TSPB"
+ *   4       4        versão (1)
+ *   8       4        flags (bit 0: coordenadas em float32)
+ *   12      4        largura (w)
+ *   16      4        altura (h)
+ *   20      4        reservado (0)
+ *   24      8        número de pontos n
+ *   32      ...      n coordenadas x seguidas de n coordenadas y (float64 ou float32)
+ *
+ * map() apenas mapeia o arquivo: x(i) e y(i) leem direto da memória mapeada, sem cópia.
+ *
+ * Conversão a partir do formato texto:
+ *   java BinaryInstance data/tsp85900.txt data/tsp85900.tspb [float]
+ */
+public final class BinaryInstance {
+
+    public static final int MAGIC = 'T' | 'S' << 8 | 'P' << 16 | 'B' << 24;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    private static final int FLAG_FLOAT32 = 1;
+
+    private final int width;
+    private final int height;
+    private final int n;
+    private final DoubleBuffer xs64, ys64;
+    private final FloatBuffer xs32, ys32;
+
+    private BinaryInstance(int width, int height, int n, ByteBuffer xs, ByteBuffer ys, boolean float32) {
+        this.width = width;
+        this.height = height;
+        this.n = n;
+        this.xs64 = float32 ? null : xs.asDoubleBuffer();
+        this.ys64 = float32 ? null : ys.asDoubleBuffer();
+        this.xs32 = float32 ? xs.asFloatBuffer() : null;
+        this.ys32 = float32 ? ys.asFloatBuffer() : null;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isFloat32() {
+        return xs32 != null;
+    }
+
+    public double x(int i) {
+        return xs64 != null ? xs64.get(i) : xs32.get(i);
+    }
+
+    public double y(int i) {
+        return ys64 != null ? ys64.get(i) : ys32.get(i);
+    }
+
+    // Copia as coordenadas mapeadas para um PointSet da mesma precisão
+    // (cópia em bloco, sem conversão de texto).
+    public PointSet toPointSet() {
+        if (xs32 != null) {
+            float[] xs = new float[n];
+            float[] ys = new float[n];
+            xs32.get(0, xs);
+            ys32.get(0, ys);
+            return new PointSet(width, height, xs, ys, n);
+        }
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        xs64.get(0, xs);
+        ys64.get(0, ys);
+        return new PointSet(width, height, xs, ys, n);
+    }
+
+    // true se o arquivo começa com a assinatura do formato binário.
+    public static boolean isBinary(String filename) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            return channel.read(head, 0) == 4 && head.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static BinaryInstance map(String filename) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(head, 0) != HEADER_BYTES || head.getInt(0) != MAGIC)
+                throw new IllegalArgumentException(filename + " não está no formato binário");
+            int version = head.getInt(4);
+            if (version != VERSION)
+                throw new IllegalArgumentException("versão " + version + " do formato binário não suportada");
+            boolean float32 = (head.getInt(8) & FLAG_FLOAT32) != 0;
+            int width = head.getInt(12);
+            int height = head.getInt(16);
+            long count = head.getLong(24);
+            if (count < 0 || count > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("número de pontos inválido: " + count);
+            int n = (int) count;
+            long block = (long) n * (float32 ? Float.BYTES : Double.BYTES);
+            if (channel.size() < HEADER_BYTES + 2 * block)
+                throw new IllegalArgumentException(filename + " está truncado");
+
+            // Blocos x e y mapeados separadamente (cada MappedByteBuffer é limitado a 2 GiB).
+            ByteBuffer xs = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, block);
+            ByteBuffer ys = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + block, block);
+            xs.order(ByteOrder.LITTLE_ENDIAN);
+            ys.order(ByteOrder.LITTLE_ENDIAN);
+            return new BinaryInstance(width, height, n, xs, ys, float32);
+        } catch (IOException e) {
+            throw new UncheckedIOException("não foi possível ler " + filename, e);
+        }
+    }
+
+    public static void write(PointSet points, String filename, boolean float32) {
+        int n = points.size();
+        long block = (long) n * (float32 ? Float.BYTES : Double.BYTES);
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(MAGIC).putInt(VERSION).putInt(float32 ? FLAG_FLOAT32 : 0)
+                .putInt(points.width()).putInt(points.height()).putInt(0).putLong(n);
+            head.flip();
+            channel.write(head, 0);
+
+            ByteBuffer xs = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, block).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer ys = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + block, block).order(ByteOrder.LITTLE_ENDIAN);
+            if (float32) {
+                FloatBuffer fx = xs.asFloatBuffer(), fy = ys.asFloatBuffer();
+                for (int i = 0; i < n; i++) {
+                    fx.put(i, (float) points.x(i));
+                    fy.put(i, (float) points.y(i));
+                }
+            } else {
+                DoubleBuffer dx = xs.asDoubleBuffer(), dy = ys.asDoubleBuffer();
+                for (int i = 0; i < n; i++) {
+                    dx.put(i, points.x(i));
+                    dy.put(i, points.y(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("não foi possível gravar " + filename, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            StdOut.println("Uso: java BinaryInstance <entrada.txt> <saida.tspb> [float]");
+            return;
+        }
+        boolean float32 = args.length > 2 && args[2].equals("float");
+        PointSet points = Instances.load(args[0]);
+        write(points, args[1], float32);
+        StdOut.println(points.size() + " pontos gravados em " + args[1] + (float32 ? " (float32)" : " (float64)"));
+    }
+}
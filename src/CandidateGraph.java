@@ -0,0 +1,185 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Listas de candidatos da busca local em formato CSR: os vizinhos do ponto i são
+ * targets[offsets[i]] .. targets[offsets[i + 1] - 1], do mais próximo ao mais distante.
+ */
+public class CandidateGraph {
+
+    // Cache em disco do grafo k-NN, ao lado da instância ("arquivo.k10.knn", little-endian):
+    //   0 "TSPK" | 4 versão | 8 n | 12 k | 16 tamanho da instância | 24 lastModified | 32 n*k ints
+    private static final int MAGIC = 'T' | 'S' << 8 | 'P' << 16 | 'K' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    // Consultas por bloco de trabalho paralelo; abaixo disso não vale a pena dividir.
+    private static final int MIN_CHUNK = 1 << 12;
+
+    private final int[] offsets;
+    private final int[] targets;
+
+    public CandidateGraph(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Os k vizinhos mais próximos de cada ponto, obtidos de uma ArrayKdTree.
+     */
+    public static CandidateGraph nearest(PointSet points, int k) {
+        int n = points.size();
+        k = Math.max(0, Math.min(k, n - 1));
+        return fromFlat(knn(points, k), n, k);
+    }
+
+    /**
+     * O mesmo grafo, lido do cache da instância quando ele existe e corresponde ao
+     * arquivo (tamanho e data de modificação); senão é calculado e o cache, gravado.
+     */
+    public static CandidateGraph cached(String filename, PointSet points, int k) {
+        int n = points.size();
+        k = Math.max(0, Math.min(k, n - 1));
+        File source = new File(filename);
+        String cache = filename + ".k" + k + ".knn";
+        int[] knn = read(cache, source, n, k);
+        if (knn == null) {
+            knn = knn(points, k);
+            write(cache, source, knn, n, k);
+        }
+        return fromFlat(knn, n, k);
+    }
+
+    /**
+     * Grafo k-NN de todos os pontos num vetor plano: os vizinhos de i são
+     * knn[i * k] .. knn[i * k + k - 1], do mais próximo ao mais distante (k <= n - 1).
+     * As consultas são feitas na ordem da curva de Hilbert (pontos vizinhos percorrem
+     * os mesmos nós da árvore) e divididas em blocos no ForkJoinPool comum.
+     */
+    public static int[] knn(PointSet points, int k) {
+        int n = points.size();
+        if (k > n - 1) throw new IllegalArgumentException("k = " + k + " com só " + n + " pontos");
+        int[] knn = new int[n * k];
+        if (k <= 0) return knn;
+        ArrayKdTree tree = ArrayKdTree.build(points);
+        int[] order = HilbertOrder.order(points);
+        int chunks = Math.max(1, n / MIN_CHUNK);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] ids = new int[k + 1];
+            double[] dist2 = new double[k + 1];
+            int lo = (int) ((long) c * n / chunks);
+            int hi = (int) ((long) (c + 1) * n / chunks);
+            for (int q = lo; q < hi; q++) {
+                int i = order[q];
+                int found = tree.nearest(points.x(i), points.y(i), k + 1, ids, dist2);
+                int m = i * k;
+                for (int j = 0, taken = 0; j < found && taken < k; j++) {
+                    if (ids[j] == i) continue;
+                    knn[m++] = ids[j];
+                    taken++;
+                }
+            }
+        });
+        return knn;
+    }
+
+    /**
+     * União de dois grafos de candidatos dos mesmos pontos (por exemplo, Delaunay e
+     * k-NN), sem repetições, cada lista do vizinho mais próximo ao mais distante.
+     */
+    public static CandidateGraph union(PointSet points, CandidateGraph a, CandidateGraph b) {
+        int n = points.size();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[a.targets.length + b.targets.length];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            int lo = m;
+            for (int j = a.start(i); j < a.end(i); j++) m = add(points, i, a.target(j), targets, lo, m);
+            for (int j = b.start(i); j < b.end(i); j++) m = add(points, i, b.target(j), targets, lo, m);
+            offsets[i + 1] = m;
+        }
+        return new CandidateGraph(offsets, Arrays.copyOf(targets, m));
+    }
+
+    // Insere t na lista targets[lo, m) de i, ordenada por distância, se ainda não estiver nela.
+    private static int add(PointSet points, int i, int t, int[] targets, int lo, int m) {
+        for (int j = lo; j < m; j++) {
+            if (targets[j] == t) return m;
+        }
+        double d = points.distance(i, t);
+        int j = m;
+        while (j > lo && points.distance(i, targets[j - 1]) > d) {
+            targets[j] = targets[j - 1];
+            j--;
+        }
+        targets[j] = t;
+        return m + 1;
+    }
+
+    private static CandidateGraph fromFlat(int[] knn, int n, int k) {
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i <= n; i++) offsets[i] = i * k;
+        return new CandidateGraph(offsets, knn);
+    }
+
+    private static int[] read(String cache, File source, int n, int k) {
+        File file = new File(cache);
+        if (!file.isFile() || file.length() != HEADER_BYTES + 4L * n * k) return null;
+        try (FileChannel channel = FileChannel.open(Paths.get(cache), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(head, 0) != HEADER_BYTES) return null;
+            if (head.getInt(0) != MAGIC || head.getInt(4) != VERSION || head.getInt(8) != n
+                    || head.getInt(12) != k || head.getLong(16) != source.length()
+                    || head.getLong(24) != source.lastModified()) return null;
+            int[] knn = new int[n * k];
+            channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 4L * n * k)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(knn);
+            return knn;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Falhas ao gravar (diretório somente leitura etc.) apenas deixam de criar o cache.
+    private static void write(String cache, File source, int[] knn, int n, int k) {
+        try (FileChannel channel = FileChannel.open(Paths.get(cache), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(k)
+                .putLong(source.length()).putLong(source.lastModified());
+            head.flip();
+            channel.write(head, 0);
+            channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, 4L * n * k)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(knn);
+        } catch (IOException e) {
+            new File(cache).delete();
+        }
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public int start(int i) {
+        return offsets[i];
+    }
+
+    public int end(int i) {
+        return offsets[i + 1];
+    }
+
+    public int target(int j) {
+        return targets[j];
+    }
+
+    public int degree(int i) {
+        return offsets[i + 1] - offsets[i];
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.Arrays;
+
+/**
+ * Inserção mais barata: a cada passo entra no ciclo o ponto, dentre todos os que
+ * faltam, cujo menor aumento de comprimento é o menor de todos. Ao contrário de
+ * Tour.insertNearestNaive, o resultado não depende da ordem do arquivo.
+ *
+ * Cada ponto fora do ciclo guarda sua melhor aresta (from -> succ[from]) e o custo
+ * dela num IndexMinHeap. Quando uma aresta é dividida, só são revistos:
+ *   - os pontos que têm o novo ponto entre os seus k vizinhos (CandidateGraph);
+ *     para eles bastam as duas arestas novas;
+ *   - os pontos cuja melhor aresta deixou de existir; o custo deles é recalculado
+ *     quando chegam ao topo do heap (a chave antiga é só uma estimativa).
+ * O recálculo olha apenas as arestas ligadas aos vizinhos já inseridos e ao ponto do
+ * ciclo mais próximo (ArrayKdTree), em vez de varrer o ciclo inteiro. É uma
+ * aproximação da inserção mais barata exata: arestas longas cujas pontas estão
+ * longe do ponto podem ser ignoradas.
+ */
+public class CheapestInsertion {
+
+    public static final int DEFAULT_NEIGHBORS = 10;
+
+    private static final int NONE = -1;
+
+    private final PointSet points;
+    private final CandidateGraph neighbors;
+    private final int[] reverseStart;  // CSR invertido: quem tem i entre seus vizinhos
+    private final int[] reverse;
+
+    private final int[] succ;
+    private final int[] pred;
+    private final int[] from;          // melhor aresta de cada ponto fora do ciclo
+    private final IndexMinHeap heap;
+    private final ArrayKdTree tour;    // pontos já no ciclo, para o ponto mais próximo
+    private final int[] cityOfKd;
+    private int start = NONE;
+
+    public CheapestInsertion(PointSet points) {
+        this(points, DEFAULT_NEIGHBORS);
+    }
+
+    public CheapestInsertion(PointSet points, int k) {
+        this.points = points;
+        int n = points.size();
+        neighbors = CandidateGraph.nearest(points, k);
+
+        reverseStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            for (int j = neighbors.start(i); j < neighbors.end(i); j++) reverseStart[neighbors.target(j) + 1]++;
+        }
+        for (int i = 0; i < n; i++) reverseStart[i + 1] += reverseStart[i];
+        reverse = new int[reverseStart[n]];
+        int[] fill = reverseStart.clone();
+        for (int i = 0; i < n; i++) {
+            for (int j = neighbors.start(i); j < neighbors.end(i); j++) {
+                reverse[fill[neighbors.target(j)]++] = i;
+            }
+        }
+
+        succ = new int[n];
+        pred = new int[n];
+        Arrays.fill(succ, NONE);
+        from = new int[n];
+        heap = new IndexMinHeap(n);
+        tour = new ArrayKdTree(n);
+        cityOfKd = new int[n];
+    }
+
+    /**
+     * Constrói o ciclo a partir do ponto 0 e devolve os ids na ordem do ciclo.
+     */
+    public int[] run() {
+        int n = points.size();
+        if (n == 0) return new int[0];
+        if (start == NONE) build();
+        int[] order = new int[n];
+        int c = start;
+        for (int i = 0; i < n; i++) {
+            order[i] = c;
+            c = succ[c];
+        }
+        return order;
+    }
+
+    public double length() {
+        return points.tourLength(run());
+    }
+
+    private void build() {
+        int n = points.size();
+        start = 0;
+        succ[0] = 0;
+        pred[0] = 0;
+        index(0);
+        // Com um só ponto no ciclo, a única "aresta" é 0 -> 0.
+        for (int i = 1; i < n; i++) {
+            from[i] = 0;
+            pred[i] = 0;
+            heap.put(i, 2 * points.distance(0, i));
+        }
+
+        while (!heap.isEmpty()) {
+            int p = heap.min();
+            int a = from[p];
+            if (succ[a] != to(p)) {
+                // A aresta escolhida foi dividida: recalcula e volta ao heap.
+                best(p);
+                continue;
+            }
+            heap.pop();
+            link(a, p);
+            update(p);
+        }
+    }
+
+    // Destino da aresta guardada para p (guardado em pred[] enquanto p está fora do ciclo).
+    private int to(int p) {
+        return pred[p];
+    }
+
+    // Avalia as duas arestas novas (pred[p], p) e (p, succ[p]) para quem tem p como vizinho.
+    private void update(int p) {
+        for (int j = reverseStart[p]; j < reverseStart[p + 1]; j++) {
+            int r = reverse[j];
+            if (!heap.contains(r)) continue;
+            consider(r, pred[p]);
+            consider(r, p);
+        }
+    }
+
+    // Menor custo de r entre as arestas ligadas aos seus vizinhos no ciclo e ao ponto mais próximo.
+    private void best(int r) {
+        from[r] = NONE;
+        double cost = Double.POSITIVE_INFINITY;
+        heap.put(r, cost);
+        int near = cityOfKd[tour.nearest(points.x(r), points.y(r))];
+        consider(r, pred[near]);
+        consider(r, near);
+        for (int j = neighbors.start(r); j < neighbors.end(r); j++) {
+            int c = neighbors.target(j);
+            if (succ[c] == NONE) continue;
+            consider(r, pred[c]);
+            consider(r, c);
+        }
+    }
+
+    // Custo de inserir r na aresta a -> succ[a]; troca a chave de r se for menor.
+    private void consider(int r, int a) {
+        int b = succ[a];
+        double cost = points.distance(a, r) + points.distance(r, b) - points.distance(a, b);
+        if (from[r] == NONE || cost < heap.key(r)) {
+            from[r] = a;
+            pred[r] = b;
+            heap.put(r, cost);
+        }
+    }
+
+    private void link(int left, int id) {
+        int right = succ[left];
+        succ[left] = id;
+        pred[id] = left;
+        succ[id] = right;
+        pred[right] = id;
+        index(id);
+    }
+
+    private void index(int id) {
+        int size = tour.size();
+        int k = tour.insert(points.x(id), points.y(id));
+        if (tour.size() > size) cityOfKd[k] = id;
+    }
+}
@@ -0,0 +1,464 @@
+import algs4.StdOut;
+import algs4.StdRandom;
+import java.util.Arrays;
+
+/**
+ * Triangulação de Delaunay incremental (inserção com flips de Lawson), usada como
+ * fonte de arestas candidatas: em instâncias com aglomerados, como usa13509, os k
+ * vizinhos mais próximos ficam todos dentro do aglomerado e faltam as arestas que
+ * ligam um aglomerado ao outro; a triangulação contém essas arestas (e a árvore
+ * geradora mínima inteira) com grau médio < 6.
+ *
+ * Os pontos são inseridos na ordem da curva de Hilbert, e cada um é localizado
+ * andando a partir do último triângulo criado, que fica perto dele; assim a
+ * localização custa O(1) em média e a construção fica em O(n log n) (a ordenação).
+ *
+ * Tudo fica em vetores: o triângulo t tem vértices tri[3t..3t+2] em sentido
+ * anti-horário, e adj[3t + i] é o triângulo do outro lado da aresta
+ * tri[3t + i] -> tri[3t + (i + 1) % 3]. Fora do fecho convexo há um único vértice
+ * simbólico no infinito (índice n): cada aresta do fecho tem do lado de fora um
+ * triângulo "fantasma" com esse vértice, e os predicados o tratam como limite, sem
+ * coordenadas (ver inCircle). Um triângulo envolvente finito, por maior que seja,
+ * cai dentro de algum círculo circunscrito de pontos quase colineares no fecho e
+ * troca arestas de verdade (até da MST) por arestas até ele.
+ *
+ * Os predicados são em double sem aritmética exata: em pontos cocirculares (as
+ * grades de tsp85900) qualquer uma das diagonais serve, e os flips também conferem
+ * a orientação, para que a triangulação continue válida mesmo com erro de
+ * arredondamento.
+ */
+public class Delaunay {
+
+    private static final int NONE = -1;
+
+    private final PointSet points;
+    private final int n;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] tri;
+    private final int[] adj;
+    private final int[] same;   // same[i] = vértice já inserido com as mesmas coordenadas, ou NONE
+    private final int infinite; // índice do vértice no infinito (= n)
+    private int[] path;         // pontos todos colineares: a ordem ao longo da reta
+    private int triangles;
+    private int last;           // triângulo de partida da próxima localização
+    private int seed = 0x2545F491;
+    private int[] stack = new int[64];
+
+    public Delaunay(PointSet points) {
+        this.points = points;
+        n = points.size();
+        infinite = n;
+        xs = new double[n + 1];
+        ys = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            xs[i] = points.x(i);
+            ys[i] = points.y(i);
+        }
+        xs[n] = Double.NaN;
+        ys[n] = Double.NaN;
+        tri = new int[3 * Math.max(2 * n - 2, 4)];
+        adj = new int[tri.length];
+        same = new int[n];
+        Arrays.fill(same, NONE);
+        if (n > 1) triangulate();
+    }
+
+    // Número de triângulos, inclusive os fantasmas (um por aresta do fecho).
+    public int triangles() {
+        return triangles;
+    }
+
+    private void triangulate() {
+        int[] order = HilbertOrder.order(points);
+        // Primeiro triângulo: o primeiro ponto da ordem, o primeiro ponto diferente dele
+        // e o primeiro fora da reta dos dois.
+        int a = order[0], b = NONE, c = NONE;
+        for (int q = 1; q < n && c == NONE; q++) {
+            int v = order[q];
+            if (b == NONE) {
+                if (xs[v] != xs[a] || ys[v] != ys[a]) b = v;
+            } else if (orient(a, b, xs[v], ys[v]) != 0) {
+                c = v;
+            }
+        }
+        if (c == NONE) {
+            // Todos os pontos na mesma reta: as arestas são as do caminho ao longo dela.
+            path = lexicographic();
+            return;
+        }
+        if (orient(a, b, xs[c], ys[c]) < 0) {
+            int t = b;
+            b = c;
+            c = t;
+        }
+        // Triângulo real 0 e os fantasmas das suas três arestas (1: a-b, 2: b-c, 3: c-a).
+        set(0, a, b, c, 1, 2, 3);
+        set(1, b, a, infinite, 0, 3, 2);
+        set(2, c, b, infinite, 0, 1, 3);
+        set(3, a, c, infinite, 0, 2, 1);
+        triangles = 4;
+        last = 0;
+
+        for (int p : order) {
+            if (p != a && p != b && p != c) insert(p);
+        }
+    }
+
+    private void insert(int p) {
+        double px = xs[p], py = ys[p];
+        int t = last;
+        int onEdge = NONE;
+        // Caminhada: atravessa uma aresta que deixa p do lado de fora. A primeira aresta
+        // testada é sorteada a cada passo, para não andar em círculos. Num triângulo
+        // fantasma, p fica nele se está estritamente fora da aresta do fecho; senão a
+        // caminhada volta para o triângulo real do outro lado dessa aresta.
+        walk:
+        while (true) {
+            onEdge = NONE;
+            int g = ghostIndex(t);
+            if (g != NONE) {
+                int x = tri[3 * t + (g + 1) % 3];
+                int y = tri[3 * t + (g + 2) % 3];
+                if (orient(x, y, px, py) > 0) break;
+                t = adj[3 * t + (g + 1) % 3];
+                continue;
+            }
+            seed ^= seed << 13;
+            seed ^= seed >>> 17;
+            seed ^= seed << 5;
+            int first = (seed >>> 1) % 3;
+            for (int k = 0; k < 3; k++) {
+                int i = (first + k) % 3;
+                int a = tri[3 * t + i];
+                int b = tri[3 * t + (i + 1) % 3];
+                double o = orient(a, b, px, py);
+                if (o < 0) {
+                    t = adj[3 * t + i];
+                    continue walk;
+                }
+                if (o == 0) onEdge = i;
+            }
+            break;
+        }
+        for (int k = 0; k < 3; k++) {
+            int v = tri[3 * t + k];
+            if (v != infinite && xs[v] == px && ys[v] == py) {
+                same[p] = v;
+                return;
+            }
+        }
+        int top = onEdge == NONE ? splitTriangle(t, p) : splitEdge(t, onEdge, p);
+        legalize(top);
+        last = t;
+    }
+
+    // Posição do vértice no infinito em t, ou NONE se t é um triângulo real.
+    private int ghostIndex(int t) {
+        for (int k = 0; k < 3; k++) {
+            if (tri[3 * t + k] == infinite) return k;
+        }
+        return NONE;
+    }
+
+    // Divide t = (a, b, c) em (a, b, p), (b, c, p), (c, a, p); empilha as arestas opostas a p.
+    private int splitTriangle(int t, int p) {
+        int a = tri[3 * t], b = tri[3 * t + 1], c = tri[3 * t + 2];
+        int na = adj[3 * t], nb = adj[3 * t + 1], nc = adj[3 * t + 2];
+        int t1 = triangles++;
+        int t2 = triangles++;
+        set(t, a, b, p, na, t1, t2);
+        set(t1, b, c, p, nb, t2, t);
+        set(t2, c, a, p, nc, t, t1);
+        replace(nb, t, t1);
+        replace(nc, t, t2);
+        int top = 0;
+        top = push(top, t, 0);
+        top = push(top, t1, 0);
+        return push(top, t2, 0);
+    }
+
+    // p está sobre a aresta i de t, (a, b); divide t e o vizinho u = (b, a, d) em quatro.
+    private int splitEdge(int t, int i, int p) {
+        int a = tri[3 * t + i], b = tri[3 * t + (i + 1) % 3], c = tri[3 * t + (i + 2) % 3];
+        int nBC = adj[3 * t + (i + 1) % 3], nCA = adj[3 * t + (i + 2) % 3];
+        int u = adj[3 * t + i];
+        int j = edgeIndex(u, b, a);
+        int d = tri[3 * u + (j + 2) % 3];
+        int nAD = adj[3 * u + (j + 1) % 3], nDB = adj[3 * u + (j + 2) % 3];
+        int t1 = triangles++;
+        int u1 = triangles++;
+        set(t, a, p, c, u1, t1, nCA);
+        set(t1, p, b, c, u, nBC, t);
+        set(u, b, p, d, t1, u1, nDB);
+        set(u1, p, a, d, t, nAD, u);
+        replace(nBC, t, t1);
+        replace(nAD, u, u1);
+        int top = 0;
+        top = push(top, t, 2);
+        top = push(top, t1, 1);
+        top = push(top, u, 2);
+        return push(top, u1, 1);
+    }
+
+    // Flips de Lawson: a aresta i de t tem o vértice novo p em frente (posição i + 2).
+    private void legalize(int top) {
+        while (top > 0) {
+            int i = stack[--top];
+            int t = stack[--top];
+            int a = tri[3 * t + i], b = tri[3 * t + (i + 1) % 3], p = tri[3 * t + (i + 2) % 3];
+            int u = adj[3 * t + i];
+            if (u == NONE) continue;
+            int j = edgeIndex(u, b, a);
+            int d = tri[3 * u + (j + 2) % 3];
+            if (inCircle(a, b, p, d) <= 0) continue;
+            // Com o vértice no infinito, estar "dentro" já garante que o flip é válido.
+            boolean real = a != infinite && b != infinite;
+            if (real && (orient(p, a, xs[d], ys[d]) <= 0 || orient(d, b, xs[p], ys[p]) <= 0)) continue;
+
+            int tBP = adj[3 * t + (i + 1) % 3], tPA = adj[3 * t + (i + 2) % 3];
+            int uAD = adj[3 * u + (j + 1) % 3], uDB = adj[3 * u + (j + 2) % 3];
+            set(t, p, a, d, tPA, uAD, u);
+            set(u, p, d, b, t, uDB, tBP);
+            replace(uAD, u, t);
+            replace(tBP, t, u);
+            top = push(top, t, 1);
+            top = push(top, u, 1);
+        }
+    }
+
+    private int push(int top, int t, int i) {
+        if (top + 2 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+        stack[top] = t;
+        stack[top + 1] = i;
+        return top + 2;
+    }
+
+    private void set(int t, int a, int b, int c, int na, int nb, int nc) {
+        tri[3 * t] = a;
+        tri[3 * t + 1] = b;
+        tri[3 * t + 2] = c;
+        adj[3 * t] = na;
+        adj[3 * t + 1] = nb;
+        adj[3 * t + 2] = nc;
+    }
+
+    // No triângulo t, troca o vizinho from por to.
+    private void replace(int t, int from, int to) {
+        if (t == NONE) return;
+        for (int k = 0; k < 3; k++) {
+            if (adj[3 * t + k] == from) {
+                adj[3 * t + k] = to;
+                return;
+            }
+        }
+    }
+
+    // Índice da aresta a -> b no triângulo t.
+    private int edgeIndex(int t, int a, int b) {
+        for (int k = 0; k < 3; k++) {
+            if (tri[3 * t + k] == a && tri[3 * t + (k + 1) % 3] == b) return k;
+        }
+        throw new IllegalStateException("triangulação inconsistente");
+    }
+
+    // > 0 se (px, py) está à esquerda de a -> b.
+    private double orient(int a, int b, double px, double py) {
+        return (xs[b] - xs[a]) * (py - ys[a]) - (ys[b] - ys[a]) * (px - xs[a]);
+    }
+
+    /**
+     * > 0 se d está dentro do círculo de (a, b, c), em sentido anti-horário. Se um dos
+     * três é o vértice no infinito, o "círculo" é o semiplano do lado de fora da aresta
+     * real do triângulo (o limite de um círculo que passa por um ponto cada vez mais
+     * distante); o próprio vértice no infinito nunca está dentro de um círculo real.
+     */
+    private double inCircle(int a, int b, int c, int d) {
+        if (d == infinite) return -1.0;
+        if (a == infinite) return orient(b, c, xs[d], ys[d]);
+        if (b == infinite) return orient(c, a, xs[d], ys[d]);
+        if (c == infinite) return orient(a, b, xs[d], ys[d]);
+        return incircle(a, b, c, d);
+    }
+
+    // > 0 se d está dentro do círculo que passa por a, b, c (em sentido anti-horário).
+    private double incircle(int a, int b, int c, int d) {
+        double adx = xs[a] - xs[d], ady = ys[a] - ys[d];
+        double bdx = xs[b] - xs[d], bdy = ys[b] - ys[d];
+        double cdx = xs[c] - xs[d], cdy = ys[c] - ys[d];
+        double ad = adx * adx + ady * ady;
+        double bd = bdx * bdx + bdy * bdy;
+        double cd = cdx * cdx + cdy * cdy;
+        return ad * (bdx * cdy - cdx * bdy) + bd * (cdx * ady - adx * cdy) + cd * (adx * bdy - bdx * ady);
+    }
+
+    /**
+     * Arestas da triangulação como listas de candidatos (CSR), cada lista do vizinho
+     * mais próximo ao mais distante. Um ponto repetido fica ligado só ao ponto de
+     * mesmas coordenadas que ficou na triangulação, por uma aresta de comprimento
+     * zero presente nas duas listas; o grafo é simétrico e conexo.
+     */
+    public CandidateGraph graph() {
+        int[] degree = new int[n + 1];
+        forEachEdge((a, b) -> {
+            degree[a]++;
+            degree[b]++;
+        });
+        for (int i = 0; i < n; i++) {
+            if (same[i] == NONE) continue;
+            degree[i]++;
+            degree[same[i]]++;
+        }
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + degree[i];
+        int[] targets = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        forEachEdge((a, b) -> {
+            targets[fill[a]++] = b;
+            targets[fill[b]++] = a;
+        });
+        for (int i = 0; i < n; i++) {
+            int v = same[i];
+            if (v == NONE) continue;
+            targets[fill[i]++] = v;
+            targets[fill[v]++] = i;
+        }
+        for (int i = 0; i < n; i++) sortByDistance(i, targets, offsets[i], offsets[i + 1]);
+        return new CandidateGraph(offsets, targets);
+    }
+
+    private interface EdgeVisitor {
+        void visit(int a, int b);
+    }
+
+    // Cada aresta entre pontos de verdade uma só vez. Toda aresta tem um triângulo de
+    // cada lado (as do fecho, um fantasma), então aparece como a -> b com a < b em um deles.
+    private void forEachEdge(EdgeVisitor visitor) {
+        if (path != null) {
+            for (int q = 1; q < path.length; q++) {
+                visitor.visit(Math.min(path[q - 1], path[q]), Math.max(path[q - 1], path[q]));
+            }
+            return;
+        }
+        for (int t = 0; t < triangles; t++) {
+            for (int k = 0; k < 3; k++) {
+                int a = tri[3 * t + k];
+                int b = tri[3 * t + (k + 1) % 3];
+                if (a < b && b < n) visitor.visit(a, b);
+            }
+        }
+    }
+
+    // Índices em ordem de (x, y): a ordem ao longo da reta quando todos são colineares.
+    private int[] lexicographic() {
+        Integer[] ids = new Integer[n];
+        for (int i = 0; i < n; i++) ids[i] = i;
+        Arrays.sort(ids, (i, j) -> xs[i] != xs[j] ? Double.compare(xs[i], xs[j]) : Double.compare(ys[i], ys[j]));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = ids[i];
+        return order;
+    }
+
+    // Inserção direta (as listas têm ~6 elementos).
+    private void sortByDistance(int i, int[] targets, int lo, int hi) {
+        for (int j = lo + 1; j < hi; j++) {
+            int v = targets[j];
+            double d = points.distance(i, v);
+            int k = j - 1;
+            while (k >= lo && points.distance(i, targets[k]) > d) {
+                targets[k + 1] = targets[k];
+                k--;
+            }
+            targets[k + 1] = v;
+        }
+    }
+
+    /**
+     * Verificações de graph():
+     *   - n pontos aleatórios (padrão 2000), ~10% deles repetindo as coordenadas de um
+     *     anterior: toda aresta está nas listas das duas pontas e o grafo é conexo;
+     *   - n pontos em três quadrados unitários em x = 0, 1e5 e 2e5 (fecho fino e quase
+     *     colinear): o peso da MST sobre a triangulação é igual ao de Prim em O(n²).
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        StdRandom.setSeed(args.length > 1 ? Long.parseLong(args[1]) : 123456789L);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int repeated = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && StdRandom.bernoulli(0.1)) {
+                int j = StdRandom.uniformInt(i);
+                xs[i] = xs[j];
+                ys[i] = ys[j];
+                repeated++;
+            } else {
+                xs[i] = StdRandom.uniformDouble(0, 600);
+                ys[i] = StdRandom.uniformDouble(0, 600);
+            }
+        }
+        PointSet points = new PointSet(600, 600, xs, ys, n);
+        CandidateGraph graph = new Delaunay(points).graph();
+
+        for (int i = 0; i < n; i++) {
+            for (int j = graph.start(i); j < graph.end(i); j++) {
+                int v = graph.target(j);
+                boolean back = false;
+                for (int k = graph.start(v); k < graph.end(v) && !back; k++) back = graph.target(k) == i;
+                if (!back) throw new IllegalStateException("aresta " + i + " -> " + v + " sem a volta");
+            }
+        }
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n];
+        int top = 0, reached = 0;
+        if (n > 0) {
+            stack[top++] = 0;
+            seen[0] = true;
+        }
+        while (top > 0) {
+            int v = stack[--top];
+            reached++;
+            for (int j = graph.start(v); j < graph.end(v); j++) {
+                int w = graph.target(j);
+                if (seen[w]) continue;
+                seen[w] = true;
+                stack[top++] = w;
+            }
+        }
+        if (reached < n) throw new IllegalStateException("grafo desconexo: " + reached + " de " + n + " pontos");
+        StdOut.printf("%d pontos (%d repetidos): grafo simétrico e conexo\n", n, repeated);
+
+        for (int i = 0; i < n; i++) {
+            xs[i] = (i % 3) * 1e5 + StdRandom.uniformDouble(0, 1);
+            ys[i] = StdRandom.uniformDouble(0, 1);
+        }
+        PointSet clusters = new PointSet(200001, 1, xs, ys, n);
+        double tree = new EuclideanMST(clusters).weight();
+        double brute = primWeight(clusters);
+        if (Math.abs(tree - brute) > 1e-9 * brute)
+            throw new IllegalStateException("MST sobre Delaunay = " + tree + ", Prim = " + brute);
+        StdOut.printf("%d pontos em três aglomerados: MST = %.4f, igual a Prim\n", n, tree);
+    }
+
+    // Peso da MST do grafo completo (Prim com vetor de distâncias, O(n²)).
+    private static double primWeight(PointSet points) {
+        int n = points.size();
+        double[] best = new double[n];
+        boolean[] done = new boolean[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        if (n > 0) best[0] = 0.0;
+        double total = 0.0;
+        for (int step = 0; step < n; step++) {
+            int v = NONE;
+            for (int i = 0; i < n; i++) {
+                if (!done[i] && (v == NONE || best[i] < best[v])) v = i;
+            }
+            done[v] = true;
+            total += best[v];
+            for (int i = 0; i < n; i++) {
+                if (!done[i]) best[i] = Math.min(best[i], points.distance(v, i));
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * Distâncias já calculadas para a busca local, em dois níveis. O cache guarda o
+ * grafo de candidatos para o qual foi construído, e TwoOpt, OrOpt e LinKernighan
+ * usam as listas dele, para que as posições do CSR sempre correspondam ao vetor:
+ *
+ *   neighbor(i, j, c)  distância de i ao candidato c = candidates.target(j), num vetor
+ *                      alinhado ao CSR do grafo (double[n*k] no grafo k-NN);
+ *   dist(i, j)         qualquer par (na prática, arestas do ciclo), por uma tabela
+ *                      pequena de endereçamento direto: o par (lo, hi), lo < hi, vai
+ *                      para a posição 2 * lo + (hi & 1) e substitui o que estava lá.
+ *
+ * Os dois níveis são opcionais. O padrão liga só o vetor dos candidatos, que na
+ * 2-opt + Or-opt empata com recalcular as distâncias (DistanceCacheBench). A tabela
+ * acerta 43% das consultas em usa13509 e 51% em tsp85900, mas deixa a busca ~40% mais
+ * lenta: procurar o par custa mais do que a raiz quadrada sobre coordenadas que já
+ * estão no cache do processador. Com a tabela ligada, acertos e faltas são contados.
+ */
+public class DistanceCache {
+
+    private static final long EMPTY = -1L;
+
+    private final PointSet points;
+    private final CandidateGraph candidates;
+    private final double[] neighbor;
+    private final long[] keys;
+    private final double[] values;
+    private long hits;
+    private long misses;
+
+    public DistanceCache(PointSet points, CandidateGraph candidates) {
+        this(points, candidates, true, false);
+    }
+
+    /**
+     * neighbors liga o vetor das distâncias aos candidatos; pairs, a tabela de pares.
+     * Com os dois desligados, toda consulta recalcula a distância.
+     */
+    public DistanceCache(PointSet points, CandidateGraph candidates, boolean neighbors, boolean pairs) {
+        this.points = points;
+        this.candidates = candidates;
+        int n = points.size();
+        if (neighbors) {
+            neighbor = new double[candidates.start(candidates.size())];
+            for (int i = 0; i < n; i++) {
+                for (int j = candidates.start(i); j < candidates.end(i); j++) {
+                    neighbor[j] = points.distance(i, candidates.target(j));
+                }
+            }
+        } else {
+            neighbor = null;
+        }
+        if (pairs) {
+            keys = new long[2 * n];
+            values = new double[2 * n];
+            Arrays.fill(keys, EMPTY);
+        } else {
+            keys = null;
+            values = null;
+        }
+    }
+
+    public PointSet points() {
+        return points;
+    }
+
+    // O grafo ao qual neighbor() está alinhado; a busca local tira dele os candidatos.
+    public CandidateGraph candidates() {
+        return candidates;
+    }
+
+    // Distância de i ao candidato c = candidates.target(j), com start(i) <= j < end(i).
+    public double neighbor(int i, int j, int c) {
+        return neighbor != null ? neighbor[j] : points.distance(i, c);
+    }
+
+    public double dist(int i, int j) {
+        if (keys == null) return points.distance(i, j);
+        int lo = Math.min(i, j);
+        int hi = Math.max(i, j);
+        long key = (long) lo << 32 | hi;
+        int slot = 2 * lo + (hi & 1);
+        if (keys[slot] == key) {
+            hits++;
+            return values[slot];
+        }
+        misses++;
+        double d = points.distance(i, j);
+        keys[slot] = key;
+        values[slot] = d;
+        return d;
+    }
+
+    // Esvazia a tabela de pares e zera os contadores (o vetor dos candidatos continua).
+    public void clear() {
+        if (keys != null) Arrays.fill(keys, EMPTY);
+        hits = 0;
+        misses = 0;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    // Fração das consultas dist(i, j) atendidas pela tabela (0 se ela está desligada).
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.Arrays;
+
+/**
+ * Árvore geradora mínima euclidiana (Kruskal com union-find em vetores) sobre um grafo
+ * de candidatos. Com as arestas de Delaunay (padrão) ela é exata, porque a triangulação
+ * contém a MST (pontos repetidos entram por arestas de comprimento zero). Com k-NN é
+ * só a árvore (ou floresta) mínima daquele grafo: pode faltar uma aresta da MST, e o
+ * peso não serve mais como limite inferior garantido.
+ *
+ * Dois usos:
+ *   - weight() é um limite inferior para qualquer ciclo (tirar uma aresta do ciclo
+ *     ótimo deixa uma árvore geradora, que pesa pelo menos a MST); se o grafo de
+ *     candidatos é desconexo (components() > 1) não há árvore, e weight() recusa;
+ *   - preorder() é o ciclo da "árvore dupla": percorrer a árvore em profundidade e
+ *     pular os pontos repetidos; pela desigualdade triangular ele mede até 2 * weight().
+ */
+public class EuclideanMST {
+
+    private static final int NONE = -1;
+
+    private final PointSet points;
+    private final int[] treeStart;  // CSR das arestas da árvore (nos dois sentidos)
+    private final int[] treeTarget;
+    private final double weight;
+    private final int components;
+
+    public EuclideanMST(PointSet points) {
+        this(points, new Delaunay(points).graph());
+    }
+
+    public EuclideanMST(PointSet points, CandidateGraph candidates) {
+        this.points = points;
+        int n = points.size();
+
+        // Cada aresta uma vez (i < j), ordenada pelo comprimento exato.
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = candidates.start(i); j < candidates.end(i); j++) {
+                if (i < candidates.target(j)) m++;
+            }
+        }
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] length = new double[m];
+        int[] order = new int[m];
+        m = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = candidates.start(i); j < candidates.end(i); j++) {
+                int t = candidates.target(j);
+                if (i >= t) continue;
+                from[m] = i;
+                to[m] = t;
+                length[m] = points.distance(i, t);
+                order[m] = m;
+                m++;
+            }
+        }
+        sort(order, length, 0, m - 1);
+
+        int[] parent = new int[n];
+        int[] size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        int[] chosen = new int[Math.max(n - 1, 0)];
+        int edges = 0;
+        double total = 0.0;
+        for (int e = 0; e < m && edges < n - 1; e++) {
+            int id = order[e];
+            int ra = find(parent, from[id]);
+            int rb = find(parent, to[id]);
+            if (ra == rb) continue;
+            if (size[ra] < size[rb]) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            parent[rb] = ra;
+            size[ra] += size[rb];
+            chosen[edges++] = id;
+            total += length[id];
+        }
+        weight = total;
+        components = n - edges;
+
+        treeStart = new int[n + 1];
+        for (int e = 0; e < edges; e++) {
+            treeStart[from[chosen[e]] + 1]++;
+            treeStart[to[chosen[e]] + 1]++;
+        }
+        for (int i = 0; i < n; i++) treeStart[i + 1] += treeStart[i];
+        treeTarget = new int[2 * edges];
+        int[] fill = Arrays.copyOf(treeStart, n);
+        for (int e = 0; e < edges; e++) {
+            int a = from[chosen[e]];
+            int b = to[chosen[e]];
+            treeTarget[fill[a]++] = b;
+            treeTarget[fill[b]++] = a;
+        }
+    }
+
+    // Peso da árvore: limite inferior do comprimento de qualquer ciclo.
+    public double weight() {
+        if (components > 1)
+            throw new IllegalStateException("grafo de candidatos desconexo (" + components
+                    + " componentes): o peso da floresta não é limite inferior");
+        return weight;
+    }
+
+    // 1 se o grafo de candidatos é conexo.
+    public int components() {
+        return components;
+    }
+
+    /**
+     * Ciclo da árvore dupla: os pontos em pré-ordem a partir do ponto 0 (e, numa
+     * floresta, cada componente em seguida da anterior).
+     */
+    public int[] preorder() {
+        int n = points.size();
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n];
+        int count = 0;
+        for (int root = 0; root < n; root++) {
+            if (seen[root]) continue;
+            int top = 0;
+            stack[top++] = root;
+            seen[root] = true;
+            while (top > 0) {
+                int v = stack[--top];
+                order[count++] = v;
+                for (int j = treeEnd(v) - 1; j >= treeStart[v]; j--) {
+                    int w = treeTarget[j];
+                    if (seen[w]) continue;
+                    seen[w] = true;
+                    stack[top++] = w;
+                }
+            }
+        }
+        return order;
+    }
+
+    private int treeEnd(int v) {
+        return treeStart[v + 1];
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Quicksort de ids[lo..hi] pela chave key[id] (com inserção nos trechos curtos).
+    private static void sort(int[] ids, double[] key, int lo, int hi) {
+        while (hi - lo > 16) {
+            double pivot = key[ids[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (key[ids[i]] < pivot) i++;
+                while (key[ids[j]] > pivot) j--;
+                if (i <= j) {
+                    int t = ids[i];
+                    ids[i++] = ids[j];
+                    ids[j--] = t;
+                }
+            }
+            // Recursão no lado menor, laço no maior: pilha O(log m).
+            if (j - lo < hi - i) {
+                sort(ids, key, lo, j);
+                lo = i;
+            } else {
+                sort(ids, key, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= lo && key[ids[j]] > key[id]) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = id;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.Arrays;
+
+/**
+ * Construção gulosa por arestas (greedy matching): percorre as arestas candidatas
+ * da mais curta à mais longa e aceita cada uma que não dê grau 3 a uma cidade nem
+ * feche um ciclo antes da hora (union-find). Sobram fragmentos (caminhos), que são
+ * unidos repetindo o processo só com as pontas livres, até restar um caminho; a
+ * última aresta liga as duas pontas dele.
+ *
+ * As candidatas são os k vizinhos mais próximos (CandidateGraph, via ArrayKdTree), ou
+ * um grafo dado no construtor (por exemplo, Delaunay.graph()) na primeira passada.
+ * Cada aresta é ordenada como um long: os bits do comprimento em float na parte alta
+ * e o número da aresta na parte baixa, o que permite usar Arrays.sort(long[]).
+ */
+public class GreedyEdge {
+
+    public static final int DEFAULT_NEIGHBORS = 10;
+
+    private static final int NONE = -1;
+
+    private final PointSet points;
+    private final int k;
+    private final CandidateGraph candidates; // arestas da primeira passada, ou null (k-NN)
+    private final int[] adj;     // adj[2i], adj[2i + 1]: vizinhos de i no ciclo
+    private final int[] parent;  // union-find dos fragmentos
+    private final int[] size;
+    private int edges;
+
+    public GreedyEdge(PointSet points) {
+        this(points, DEFAULT_NEIGHBORS);
+    }
+
+    public GreedyEdge(PointSet points, int k) {
+        this(points, k, null);
+    }
+
+    // Primeira passada sobre as arestas de candidates; a junção dos fragmentos usa k-NN.
+    public GreedyEdge(PointSet points, CandidateGraph candidates) {
+        this(points, DEFAULT_NEIGHBORS, candidates);
+    }
+
+    private GreedyEdge(PointSet points, int k, CandidateGraph candidates) {
+        this.points = points;
+        this.k = k;
+        this.candidates = candidates;
+        int n = points.size();
+        adj = new int[2 * n];
+        Arrays.fill(adj, NONE);
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    /**
+     * Constrói o ciclo e devolve os ids na ordem do ciclo, a partir do ponto 0.
+     */
+    public int[] run() {
+        int n = points.size();
+        if (n <= 2) {
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            return order;
+        }
+        if (edges == 0) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            match(all, n, candidates);
+            // Junta os fragmentos usando só as pontas livres (grau < 2).
+            int[] ends = new int[n];
+            while (edges < n - 1) {
+                int m = 0;
+                for (int i = 0; i < n; i++) {
+                    if (adj[2 * i + 1] == NONE) ends[m++] = i;
+                }
+                match(ends, m, null);
+            }
+            // Fecha o ciclo.
+            int a = NONE, b = NONE;
+            for (int i = 0; i < n; i++) {
+                if (adj[2 * i + 1] != NONE) continue;
+                if (a == NONE) a = i;
+                else b = i;
+            }
+            connect(a, b);
+        }
+        int[] order = new int[n];
+        int prev = NONE, c = 0;
+        for (int i = 0; i < n; i++) {
+            order[i] = c;
+            int next = adj[2 * c] != prev ? adj[2 * c] : adj[2 * c + 1];
+            prev = c;
+            c = next;
+        }
+        return order;
+    }
+
+    // O mesmo ciclo na representação de Tour.
+    public Tour tour() {
+        return new Tour(points, run());
+    }
+
+    // Passo guloso sobre as arestas de graph (ids locais 0..m-1, ponto ids[i]); sem graph,
+    // usa os k vizinhos mais próximos dentro de ids[0, m).
+    private void match(int[] ids, int m, CandidateGraph graph) {
+        if (graph == null) {
+            double[] xs = new double[m];
+            double[] ys = new double[m];
+            for (int i = 0; i < m; i++) {
+                xs[i] = points.x(ids[i]);
+                ys[i] = points.y(ids[i]);
+            }
+            graph = CandidateGraph.nearest(new PointSet(points.width(), points.height(), xs, ys, m), k);
+        }
+
+        // Cada aresta aparece uma vez (i < j); a dos dois lados vira uma só.
+        int[] from = new int[graph.end(m - 1)];
+        int[] to = new int[from.length];
+        long[] keys = new long[from.length];
+        int e = 0;
+        for (int i = 0; i < m; i++) {
+            for (int j = graph.start(i); j < graph.end(i); j++) {
+                int t = graph.target(j);
+                if (t < i && isNeighbor(graph, t, i)) continue;
+                from[e] = ids[i];
+                to[e] = ids[t];
+                float length = (float) points.distance(from[e], to[e]);
+                keys[e] = ((long) Float.floatToIntBits(length) << 32) | e;
+                e++;
+            }
+        }
+        Arrays.sort(keys, 0, e);
+
+        for (int j = 0; j < e; j++) {
+            int id = (int) keys[j];
+            int a = from[id];
+            int b = to[id];
+            if (adj[2 * a + 1] != NONE || adj[2 * b + 1] != NONE) continue;
+            int ra = find(a);
+            int rb = find(b);
+            if (ra == rb) continue;
+            if (size[ra] < size[rb]) {
+                parent[ra] = rb;
+                size[rb] += size[ra];
+            } else {
+                parent[rb] = ra;
+                size[ra] += size[rb];
+            }
+            connect(a, b);
+            edges++;
+        }
+    }
+
+    private static boolean isNeighbor(CandidateGraph graph, int i, int t) {
+        for (int j = graph.start(i); j < graph.end(i); j++) {
+            if (graph.target(j) == t) return true;
+        }
+        return false;
+    }
+
+    private void connect(int a, int b) {
+        adj[adj[2 * a] == NONE ? 2 * a : 2 * a + 1] = b;
+        adj[adj[2 * b] == NONE ? 2 * b : 2 * b + 1] = a;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+/**
+ * Limite inferior de Held–Karp: o maior valor de L(pi) = peso da 1-árvore mínima com
+ * custos d(i, j) + pi[i] + pi[j], menos 2 * soma(pi), obtido por subgradiente nas
+ * penalidades pi. A 1-árvore é uma árvore geradora dos pontos 1..n-1 mais as duas
+ * arestas mais baratas do ponto 0; todo ciclo é uma 1-árvore com grau 2 em todos os
+ * pontos, então L(pi) <= ótimo para qualquer pi. O subgradiente empurra pi[i] para
+ * cima onde o grau passa de 2 e para baixo onde é 1.
+ *
+ * A árvore é calculada com Prim (IndexMinHeap) sobre um grafo de candidatos esparso,
+ * por padrão Delaunay mais os 10 vizinhos mais próximos, em vez do grafo completo.
+ * Por isso o limite é aproximado: com pi != 0 a 1-árvore mínima do grafo completo pode
+ * usar uma aresta fora dos candidatos. Na prática a diferença é desprezível.
+ *
+ * run() tem orçamento de tempo e continua das penalidades da chamada anterior. Se
+ * nenhuma 1-árvore foi obtida (grafo de candidatos desconexo ou orçamento zero), o
+ * limite é o peso da MST euclidiana, que é o valor de L(0) no grafo completo.
+ */
+public class HeldKarp {
+
+    private static final int NEIGHBORS = 10;
+
+    // Passos seguidos sem melhora do limite antes de reduzir lambda pela metade.
+    private static final int PERIOD = 20;
+
+    private static final int NONE = -1;
+
+    private final PointSet points;
+    private final CandidateGraph graph;
+    private final int n;
+    private final double[] pi;
+    private final double[] bestPi;
+    private final int[] degree;
+    private final int[] parent;
+    private final boolean[] inTree;
+    private final IndexMinHeap heap;
+
+    private double lambda = 2.0;
+    private double bound = Double.NEGATIVE_INFINITY;
+    private int iterations;
+
+    public HeldKarp(PointSet points) {
+        this(points, CandidateGraph.union(points, new Delaunay(points).graph(),
+                CandidateGraph.nearest(points, NEIGHBORS)));
+    }
+
+    public HeldKarp(PointSet points, CandidateGraph graph) {
+        this.points = points;
+        this.graph = graph;
+        n = points.size();
+        pi = new double[n];
+        bestPi = new double[n];
+        degree = new int[n];
+        parent = new int[n];
+        inTree = new boolean[n];
+        heap = new IndexMinHeap(n);
+    }
+
+    /**
+     * Passos de subgradiente até o orçamento acabar (ou o passo ficar desprezível).
+     * upper é o comprimento de um ciclo conhecido, usado no tamanho do passo.
+     * Devolve o melhor limite obtido até agora (sempre finito).
+     */
+    public double run(double upper, double seconds) {
+        if (n < 3) {
+            bound = upper;
+            return bound;
+        }
+        long deadline = System.nanoTime() + (long) (seconds * 1e9);
+        int stalled = 0;
+        while (System.nanoTime() < deadline && lambda > 1e-6) {
+            double value = oneTree();
+            if (Double.isNaN(value)) break; // grafo de candidatos desconexo
+            iterations++;
+            if (value > bound) {
+                bound = value;
+                System.arraycopy(pi, 0, bestPi, 0, n);
+                stalled = 0;
+            } else if (++stalled == PERIOD) {
+                lambda /= 2;
+                stalled = 0;
+            }
+            double norm = 0.0;
+            for (int i = 0; i < n; i++) norm += (degree[i] - 2) * (degree[i] - 2);
+            if (norm == 0) break; // a 1-árvore é um ciclo: o limite é o ótimo
+            double step = lambda * (upper - value) / norm;
+            for (int i = 0; i < n; i++) pi[i] += step * (degree[i] - 2);
+        }
+        // A próxima chamada parte das melhores penalidades.
+        System.arraycopy(bestPi, 0, pi, 0, n);
+        if (bound == Double.NEGATIVE_INFINITY) bound = new EuclideanMST(points).weight();
+        return bound;
+    }
+
+    public double bound() {
+        return bound;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    // Valor de L(pi) para as penalidades atuais; preenche degree[]. NaN se desconexo.
+    private double oneTree() {
+        Arrays.fill(degree, 0);
+        Arrays.fill(inTree, false);
+        double total = 0.0;
+        int reached = 0;
+        heap.put(1, 0.0);
+        parent[1] = NONE;
+        while (!heap.isEmpty()) {
+            double key = heap.key(heap.min());
+            int v = heap.pop();
+            inTree[v] = true;
+            reached++;
+            total += key;
+            if (parent[v] != NONE) {
+                degree[v]++;
+                degree[parent[v]]++;
+            }
+            for (int j = graph.start(v); j < graph.end(v); j++) {
+                int w = graph.target(j);
+                if (w == 0 || inTree[w]) continue;
+                double cost = points.distance(v, w) + pi[v] + pi[w];
+                if (!heap.contains(w) || cost < heap.key(w)) {
+                    heap.put(w, cost);
+                    parent[w] = v;
+                }
+            }
+        }
+        if (reached < n - 1) return Double.NaN;
+
+        // As duas arestas mais baratas do ponto 0.
+        int first = NONE, second = NONE;
+        double c1 = Double.POSITIVE_INFINITY, c2 = Double.POSITIVE_INFINITY;
+        for (int j = graph.start(0); j < graph.end(0); j++) {
+            int w = graph.target(j);
+            double cost = points.distance(0, w) + pi[0] + pi[w];
+            if (cost < c1) {
+                second = first;
+                c2 = c1;
+                first = w;
+                c1 = cost;
+            } else if (cost < c2) {
+                second = w;
+                c2 = cost;
+            }
+        }
+        if (second == NONE) return Double.NaN;
+        total += c1 + c2;
+        degree[0] = 2;
+        degree[first]++;
+        degree[second]++;
+
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) sum += pi[i];
+        return total - 2 * sum;
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Ciclo pela curva de Hilbert: cada ponto recebe a posição da sua célula numa grade
+ * 2^16 x 2^16 sobre a caixa "w h" do cabeçalho da instância, e o ciclo visita os
+ * pontos na ordem dessas chaves. O ciclo fica mais ou menos no nível da inserção
+ * pelo vizinho mais próximo, mas sai em O(n) e em milissegundos: as chaves e a
+ * ordenação (radix sort LSD, 4 passadas de 8 bits) são divididas em blocos
+ * processados em paralelo.
+ */
+public class HilbertOrder {
+
+    private static final int BITS = 16;
+    private static final int SIDE = 1 << BITS;
+
+    // Abaixo disso um bloco só é mais rápido do que dividir o trabalho.
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private HilbertOrder() { }
+
+    /**
+     * Ids dos pontos na ordem da curva de Hilbert.
+     */
+    public static int[] order(PointSet points) {
+        int n = points.size();
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), n / MIN_CHUNK));
+        // Pontos fora do cabeçalho (ou cabeçalho zerado) caem na borda da grade.
+        double sx = points.width() > 0 ? SIDE / (double) points.width() : 1.0;
+        double sy = points.height() > 0 ? SIDE / (double) points.height() : 1.0;
+
+        int[] keys = new int[n];
+        int[] ids = new int[n];
+        forEachChunk(chunks, n, (c, lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                keys[i] = key(cell(points.x(i) * sx), cell(points.y(i) * sy));
+                ids[i] = i;
+            }
+        });
+        radixSort(keys, ids, chunks);
+        return ids;
+    }
+
+    // O mesmo ciclo na representação de Tour.
+    public static Tour tour(PointSet points) {
+        return new Tour(points, order(points));
+    }
+
+    private static int cell(double v) {
+        if (!(v > 0)) return 0;
+        return v >= SIDE ? SIDE - 1 : (int) v;
+    }
+
+    /**
+     * Distância ao longo da curva da célula (x, y), tratada como inteiro sem sinal de
+     * 32 bits (o produto s * s * 3 passa de 2^31 e o int dá a volta de propósito).
+     */
+    static int key(int x, int y) {
+        int d = 0;
+        for (int s = SIDE >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            d += s * s * ((3 * rx) ^ ry);
+            // Gira o quadrante para que a subcurva tenha a orientação padrão.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    // Radix sort LSD estável de ids[] pelas chaves sem sinal, com contagem e
+    // distribuição feitas por bloco em paralelo.
+    private static void radixSort(int[] keys, int[] ids, int chunks) {
+        int n = keys.length;
+        int[] keys2 = new int[n];
+        int[] ids2 = new int[n];
+        int[][] counts = new int[chunks][256];
+        for (int shift = 0; shift < 32; shift += 8) {
+            int sh = shift;
+            int[] srcKeys = keys, srcIds = ids, dstKeys = keys2, dstIds = ids2;
+            forEachChunk(chunks, n, (c, lo, hi) -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                for (int i = lo; i < hi; i++) count[(srcKeys[i] >>> sh) & 0xFF]++;
+            });
+            // Posição inicial de cada (dígito, bloco): dígitos em ordem, blocos em ordem.
+            int next = 0;
+            for (int b = 0; b < 256; b++) {
+                for (int c = 0; c < chunks; c++) {
+                    int k = counts[c][b];
+                    counts[c][b] = next;
+                    next += k;
+                }
+            }
+            forEachChunk(chunks, n, (c, lo, hi) -> {
+                int[] pos = counts[c];
+                for (int i = lo; i < hi; i++) {
+                    int j = pos[(srcKeys[i] >>> sh) & 0xFF]++;
+                    dstKeys[j] = srcKeys[i];
+                    dstIds[j] = srcIds[i];
+                }
+            });
+            int[] t = keys;
+            keys = keys2;
+            keys2 = t;
+            t = ids;
+            ids = ids2;
+            ids2 = t;
+        }
+        // Quatro passadas: o resultado voltou aos vetores originais.
+    }
+
+    private interface Range {
+        void run(int chunk, int lo, int hi);
+    }
+
+    private static void forEachChunk(int chunks, int n, Range range) {
+        if (chunks == 1) {
+            range.run(0, 0, n);
+            return;
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> range.run(c, start(c, n, chunks), start(c + 1, n, chunks)));
+    }
+
+    private static int start(int c, int n, int chunks) {
+        return (int) ((long) c * n / chunks);
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+/**
+ * Heap binário mínimo indexado por inteiros 0..n-1 com chaves double, sem boxing.
+ * Permite diminuir ou aumentar a chave de um índice que já está no heap.
+ */
+class IndexMinHeap {
+
+    private final int[] heap;    // heap[j] = índice na posição j
+    private final int[] where;   // where[i] = posição de i no heap, ou -1
+    private final double[] keys;
+    private int size;
+
+    IndexMinHeap(int n) {
+        heap = new int[n];
+        where = new int[n];
+        keys = new double[n];
+        Arrays.fill(where, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int i) {
+        return where[i] >= 0;
+    }
+
+    double key(int i) {
+        return keys[i];
+    }
+
+    int min() {
+        return heap[0];
+    }
+
+    // Insere i com a chave dada, ou troca a chave se i já estiver no heap.
+    void put(int i, double key) {
+        if (where[i] < 0) {
+            heap[size] = i;
+            where[i] = size;
+            keys[i] = key;
+            up(size++);
+            return;
+        }
+        double old = keys[i];
+        keys[i] = key;
+        if (key < old) up(where[i]);
+        else down(where[i]);
+    }
+
+    int pop() {
+        int i = heap[0];
+        size--;
+        if (size > 0) {
+            move(heap[size], 0);
+            down(0);
+        }
+        where[i] = -1;
+        return i;
+    }
+
+    private void up(int j) {
+        int i = heap[j];
+        double key = keys[i];
+        while (j > 0) {
+            int parent = (j - 1) >>> 1;
+            if (keys[heap[parent]] <= key) break;
+            move(heap[parent], j);
+            j = parent;
+        }
+        move(i, j);
+    }
+
+    private void down(int j) {
+        int i = heap[j];
+        double key = keys[i];
+        while (true) {
+            int child = 2 * j + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+            if (key <= keys[heap[child]]) break;
+            move(heap[child], j);
+            j = child;
+        }
+        move(i, j);
+    }
+
+    private void move(int i, int j) {
+        heap[j] = i;
+        where[i] = j;
+    }
+}
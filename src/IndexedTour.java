@@ -0,0 +1,237 @@
+import algs4.StdDraw;
+import java.util.Arrays;
+
+/**
+ * Tour por ids inteiros: o ponto i de um PointSet é a cidade i, e o ciclo é guardado
+ * em dois vetores, succ[i] e pred[i]. A ArrayKdTree devolve ids, então a inserção
+ * não precisa de nodeMap, de objetos Node nem de conversões Point <-> Point2D.
+ *
+ * insertNearest segue Tour.insertNearestKd: acha o ponto mais próximo já no ciclo
+ * e insere o novo antes ou depois dele, o que aumentar menos o comprimento.
+ * insertNearestNaive segue Tour.insertNearestNaive: varre todas as arestas do ciclo.
+ * insertFarthest completa o ciclo pela inserção do mais distante.
+ */
+public class IndexedTour {
+
+    private static final int NONE = -1;
+
+    // Cidades do ciclo (as mais próximas) cujas arestas são avaliadas em insertFarthest.
+    private static final int FARTHEST_CANDIDATES = 8;
+
+    private final PointSet points;
+    private final int[] succ;
+    private final int[] pred;
+    private int start;
+    private int count;
+
+    private final ArrayKdTree kdTree;
+    private final int[] cityOfKd; // id na árvore -> id do ponto (a árvore ignora repetidos)
+
+    public IndexedTour(PointSet points) {
+        this.points = points;
+        int n = points.size();
+        succ = new int[n];
+        pred = new int[n];
+        Arrays.fill(succ, NONE);
+        start = NONE;
+        kdTree = new ArrayKdTree(n);
+        cityOfKd = new int[n];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean contains(int id) {
+        return succ[id] != NONE;
+    }
+
+    public int next(int id) {
+        return succ[id];
+    }
+
+    public int prev(int id) {
+        return pred[id];
+    }
+
+    public double length() {
+        if (count < 2) return 0.0;
+        double total = 0.0;
+        int c = start;
+        do {
+            total += points.distance(c, succ[c]);
+            c = succ[c];
+        } while (c != start);
+        return total;
+    }
+
+    // Ids na ordem do ciclo, a partir do primeiro ponto inserido.
+    public int[] order() {
+        int[] order = new int[count];
+        int c = start;
+        for (int i = 0; i < count; i++) {
+            order[i] = c;
+            c = succ[c];
+        }
+        return order;
+    }
+
+    public String toString() {
+        if (count == 0) return "(Tour vazio)";
+        StringBuilder sb = new StringBuilder();
+        int c = start;
+        do {
+            sb.append(points.point(c)).append("\n");
+            c = succ[c];
+        } while (c != start);
+        return sb.toString();
+    }
+
+    public void draw() {
+        if (count < 2) return;
+        int c = start;
+        do {
+            int d = succ[c];
+            StdDraw.line(points.x(c), points.y(c), points.x(d), points.y(d));
+            c = d;
+        } while (c != start);
+    }
+
+    // Insere todos os pontos, na ordem dos ids.
+    public void insertAll() {
+        for (int i = 0; i < points.size(); i++) {
+            insertNearest(i);
+        }
+    }
+
+    // Insere os pontos na ordem dada (uma permutação dos ids, ou parte dela).
+    public void insertAll(int[] order, boolean naive) {
+        for (int id : order) {
+            if (naive) insertNearestNaive(id);
+            else insertNearest(id);
+        }
+    }
+
+    public void insertNearestNaive(int id) {
+        if (contains(id)) throw new IllegalArgumentException("ponto " + id + " já está no ciclo");
+        if (start == NONE) {
+            insertFirst(id);
+            return;
+        }
+        int bestPrev = start;
+        double minIncrease = Double.POSITIVE_INFINITY;
+        int c = start;
+        do {
+            int d = succ[c];
+            double increase = points.distance(c, id) + points.distance(id, d) - points.distance(c, d);
+            if (increase < minIncrease) {
+                minIncrease = increase;
+                bestPrev = c;
+            }
+            c = d;
+        } while (c != start);
+        link(bestPrev, id);
+    }
+
+    public void insertNearest(int id) {
+        if (contains(id)) throw new IllegalArgumentException("ponto " + id + " já está no ciclo");
+        double x = points.x(id);
+        double y = points.y(id);
+
+        if (start == NONE) {
+            insertFirst(id);
+            return;
+        }
+        int near = cityOfKd[kdTree.nearest(x, y)];
+        int before = pred[near];
+        int after = succ[near];
+        double costBefore = points.distance(before, id) + points.distance(id, near)
+                - points.distance(before, near);
+        double costAfter = points.distance(near, id) + points.distance(id, after)
+                - points.distance(near, after);
+        link(costBefore < costAfter ? before : near, id);
+    }
+
+    /**
+     * Inserção do mais distante: a cada passo entra o ponto fora do ciclo mais distante
+     * dele, na aresta de menor aumento entre as ligadas às suas cidades mais próximas
+     * já no ciclo. Começa pelo ponto 0 se o ciclo estiver vazio.
+     *
+     * A distância de cada ponto ao ciclo fica num IndexMinHeap (com sinal trocado).
+     * Ao inserir p, só pode diminuir a distância de pontos a menos de dist(p) de p,
+     * e dist(p) é a maior de todas; eles são buscados numa ArrayKdTree com todos os
+     * pontos, em vez de revisar os n pontos a cada passo.
+     */
+    public void insertFarthest() {
+        int n = points.size();
+        if (count == n) return;
+        if (start == NONE) insertFirst(0);
+
+        IndexMinHeap farthest = new IndexMinHeap(n);
+        for (int i = 0; i < n; i++) {
+            if (contains(i)) continue;
+            int near = cityOfKd[kdTree.nearest(points.x(i), points.y(i))];
+            farthest.put(i, -points.distance(near, i));
+        }
+
+        ArrayKdTree all = ArrayKdTree.build(points);
+        int[] ball = new int[n];
+        int[] ids = new int[FARTHEST_CANDIDATES];
+        double[] dist2 = new double[FARTHEST_CANDIDATES];
+        while (!farthest.isEmpty()) {
+            double radius = -farthest.key(farthest.min());
+            int p = farthest.pop();
+            double x = points.x(p);
+            double y = points.y(p);
+
+            int bestPrev = NONE;
+            double minIncrease = Double.POSITIVE_INFINITY;
+            int found = kdTree.nearest(x, y, FARTHEST_CANDIDATES, ids, dist2);
+            for (int j = 0; j < found; j++) {
+                int c = cityOfKd[ids[j]];
+                for (int a = pred[c], k = 0; k < 2; a = c, k++) {
+                    int b = succ[a];
+                    double increase = points.distance(a, p) + points.distance(p, b) - points.distance(a, b);
+                    if (increase < minIncrease) {
+                        minIncrease = increase;
+                        bestPrev = a;
+                    }
+                }
+            }
+            link(bestPrev, p);
+
+            int m = all.within(x, y, radius, ball);
+            for (int j = 0; j < m; j++) {
+                int q = ball[j];
+                if (!farthest.contains(q)) continue;
+                double d = points.distance(p, q);
+                if (d < -farthest.key(q)) farthest.put(q, -d);
+            }
+        }
+    }
+
+    private void insertFirst(int id) {
+        start = id;
+        succ[id] = id;
+        pred[id] = id;
+        count = 1;
+        index(id);
+    }
+
+    // Liga id logo depois de left.
+    private void link(int left, int id) {
+        int right = succ[left];
+        succ[left] = id;
+        pred[id] = left;
+        succ[id] = right;
+        pred[right] = id;
+        count++;
+        index(id);
+    }
+
+    private void index(int id) {
+        int size = kdTree.size();
+        int k = kdTree.insert(points.x(id), points.y(id));
+        if (kdTree.size() > size) cityOfKd[k] = id;
+    }
+}
@@ -0,0 +1,29 @@
+import java.io.File;
+
+/**
+ * Ponto único de carga das instâncias usado pelos clientes (NearestInsertion,
+ * TSPVisualizer, TSPTimer). O formato é detectado pela assinatura: arquivos binários
+ * (BinaryInstance) são mapeados e copiados em bloco para o PointSet, sem conversão de
+ * texto; os de texto grandes vão para o leitor mapeado e paralelo, e os pequenos para
+ * o leitor sequencial, que não tem custo de threads.
+ */
+public final class Instances {
+
+    // A partir deste tamanho o leitor paralelo compensa (tsp85900.txt tem ~1,3 MB).
+    private static final long MAPPED_THRESHOLD = 4L << 20;
+
+    private Instances() { }
+
+    // Como load(filename), mas com as coordenadas em float32 (metade da memória).
+    public static PointSet load(String filename, boolean float32) {
+        PointSet points = load(filename);
+        return float32 && !points.isFloat32() ? points.toFloat32() : points;
+    }
+
+    public static PointSet load(String filename) {
+        if (BinaryInstance.isBinary(filename)) return BinaryInstance.map(filename).toPointSet();
+        File file = new File(filename);
+        if (file.length() >= MAPPED_THRESHOLD) return MappedPointReader.read(filename);
+        return PointReader.read(filename);
+    }
+}
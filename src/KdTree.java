@@ -1,25 +1,48 @@
 import algs4.Point2D;
 import algs4.RectHV;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
-public class KdTree {
+/**
+ * delete(p) apenas marca o nó como removido; cada nó guarda quantos pontos vivos há
+ * na sua subárvore, e nearest/contains ignoram subárvores sem nenhum. Quando mais da
+ * metade dos nós da árvore está removida, ela é reconstruída (balanceada pela mediana)
+ * só com os vivos, mantendo os ids. size() conta todos os ids; live(), os vivos.
+ */
+public class KdTree implements PointIndex {
 
     private static final boolean VERTICAL = true;
     private static final boolean HORIZONTAL = false;
 
+    // Fração de nós removidos na árvore a partir da qual ela é reconstruída.
+    private static final double REBUILD_FRACTION = 0.5;
+
     private Node root;
     private int size;
+    private int dead;   // nós removidos ainda na árvore
+    private Node found; // nó do ponto inserido (ou já existente) no último insert
+    private Point2D[] byId = new Point2D[16];  // ponto de cada id
+
+    // Heap de nearest(query, k), reaproveitado entre as consultas.
+    private int[] heapIds = new int[0];
+    private double[] heapDist2 = new double[0];
 
     private static class Node {
         private final Point2D p;
         private final RectHV rect;
+        private final int id;
         private Node lb;
         private Node rt;
         private final boolean orientation;
+        private int live;        // pontos vivos na subárvore
+        private boolean deleted;
 
-        Node(Point2D p, RectHV rect, boolean orientation) {
+        Node(Point2D p, RectHV rect, boolean orientation, int id) {
             this.p = p;
             this.rect = rect;
             this.orientation = orientation;
+            this.id = id;
         }
     }
 
@@ -29,43 +52,183 @@ public class KdTree {
     }
 
     public boolean isEmpty() {
-        return size == 0;
+        return live() == 0;
     }
 
     public int size() {
         return size;
     }
 
+    public int live() {
+        return root == null ? 0 : root.live;
+    }
+
     public void insert(Point2D p) {
         if (p == null) throw new IllegalArgumentException("ponto nulo");
+        insertPoint(p);
+    }
+
+    /**
+     * Insere (x, y) e devolve o id do ponto (ordem de inserção). Se o ponto já
+     * existir, devolve o id existente.
+     */
+    public int insert(double x, double y) {
+        return insertPoint(new Point2D(x, y));
+    }
+
+    private int insertPoint(Point2D p) {
         if (root == null) {
-            root = new Node(p, new RectHV(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
-                    Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY), VERTICAL);
-            size = 1;
-            return;
+            root = new Node(p, everything(), VERTICAL, size++);
+            root.live = 1;
+            remember(root);
+            return root.id;
         }
+        found = null;
+        int ids = size;
         root = insert(root, p);
+        if (size > ids) {
+            addToPath(p, +1);
+            remember(found);
+        } else if (found.deleted) {
+            // Reinserção de um ponto removido: volta a valer, com o mesmo id.
+            found.deleted = false;
+            dead--;
+            addToPath(p, +1);
+        }
+        return found.id;
+    }
+
+    private void remember(Node node) {
+        if (node.id >= byId.length) byId = Arrays.copyOf(byId, Math.max(2 * byId.length, node.id + 1));
+        byId[node.id] = node.p;
+    }
+
+    private static RectHV everything() {
+        return new RectHV(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Remove p (marca o nó como removido). Devolve false se p não estava na árvore.
+     */
+    public boolean delete(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("ponto nulo");
+        Node node = find(p);
+        if (node == null || node.deleted) return false;
+        node.deleted = true;
+        addToPath(p, -1);
+        dead++;
+        if (dead > REBUILD_FRACTION * (dead + live())) rebuild();
+        return true;
+    }
+
+    private Node find(Point2D p) {
+        Node node = root;
+        while (node != null && !node.p.equals(p)) {
+            boolean less = node.orientation == VERTICAL ? p.x() < node.p.x() : p.y() < node.p.y();
+            node = less ? node.lb : node.rt;
+        }
+        return node;
+    }
+
+    // Soma delta ao contador de vivos de cada nó do caminho da raiz até o nó de p.
+    private void addToPath(Point2D p, int delta) {
+        Node node = root;
+        while (true) {
+            node.live += delta;
+            if (node.p.equals(p)) return;
+            boolean less = node.orientation == VERTICAL ? p.x() < node.p.x() : p.y() < node.p.y();
+            node = less ? node.lb : node.rt;
+        }
+    }
+
+    // Refaz a árvore, balanceada, só com os nós vivos (mesmos pontos e ids).
+    private void rebuild() {
+        Node[] nodes = new Node[live()];
+        collect(root, nodes, 0);
+        root = build(nodes, 0, nodes.length, VERTICAL, everything());
+        dead = 0;
+    }
+
+    private static int collect(Node node, Node[] nodes, int count) {
+        if (node == null || node.live == 0) return count;
+        if (!node.deleted) nodes[count++] = node;
+        count = collect(node.lb, nodes, count);
+        return collect(node.rt, nodes, count);
+    }
+
+    // Subárvore com nodes[lo, hi): a mediana vira a raiz, os menores vão para lb e os
+    // maiores ou iguais para rt, a mesma regra de descida de insert().
+    private static Node build(Node[] nodes, int lo, int hi, boolean orientation, RectHV rect) {
+        if (lo >= hi) return null;
+        int first = select(nodes, lo, hi - 1, (lo + hi) >>> 1, orientation);
+        Node old = nodes[first];
+        Node node = new Node(old.p, rect, orientation, old.id);
+        RectHV left, right;
+        if (orientation == VERTICAL) {
+            left = new RectHV(rect.xmin(), rect.ymin(), node.p.x(), rect.ymax());
+            right = new RectHV(node.p.x(), rect.ymin(), rect.xmax(), rect.ymax());
+        } else {
+            left = new RectHV(rect.xmin(), rect.ymin(), rect.xmax(), node.p.y());
+            right = new RectHV(rect.xmin(), node.p.y(), rect.xmax(), rect.ymax());
+        }
+        node.lb = build(nodes, lo, first, !orientation, left);
+        node.rt = build(nodes, first + 1, hi, !orientation, right);
+        node.live = hi - lo;
+        return node;
+    }
+
+    // Quickselect em três vias (como em ArrayKdTree): deixa o k-ésimo no lugar e
+    // devolve o primeiro índice com a mesma chave.
+    private static int select(Node[] nodes, int lo, int hi, int k, boolean orientation) {
+        while (hi >= lo) {
+            double pivot = key(nodes[(lo + hi) >>> 1], orientation);
+            int lt = lo, gt = hi, i = lo;
+            while (i <= gt) {
+                double v = key(nodes[i], orientation);
+                if (v < pivot) swap(nodes, lt++, i++);
+                else if (v > pivot) swap(nodes, i, gt--);
+                else i++;
+            }
+            if (k < lt) hi = lt - 1;
+            else if (k > gt) lo = gt + 1;
+            else return lt;
+        }
+        return k;
+    }
+
+    private static double key(Node node, boolean orientation) {
+        return orientation == VERTICAL ? node.p.x() : node.p.y();
+    }
+
+    private static void swap(Node[] nodes, int i, int j) {
+        Node t = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = t;
     }
 
     private Node insert(Node node, Point2D p) {
         if (node == null) return null;
 
-        if (node.p.equals(p)) return node;
+        if (node.p.equals(p)) {
+            found = node;
+            return node;
+        }
 
         if (node.orientation == VERTICAL) {
             if (p.x() < node.p.x()) {
                 if (node.lb == null) {
                     RectHV r = new RectHV(node.rect.xmin(), node.rect.ymin(), node.p.x(), node.rect.ymax());
-                    node.lb = new Node(p, r, HORIZONTAL);
-                    size++;
+                    node.lb = new Node(p, r, HORIZONTAL, size++);
+                    found = node.lb;
                 } else {
                     node.lb = insert(node.lb, p);
                 }
             } else {
                 if (node.rt == null) {
                     RectHV r = new RectHV(node.p.x(), node.rect.ymin(), node.rect.xmax(), node.rect.ymax());
-                    node.rt = new Node(p, r, HORIZONTAL);
-                    size++;
+                    node.rt = new Node(p, r, HORIZONTAL, size++);
+                    found = node.rt;
                 } else {
                     node.rt = insert(node.rt, p);
                 }
@@ -74,16 +237,16 @@ public class KdTree {
             if (p.y() < node.p.y()) {
                 if (node.lb == null) {
                     RectHV r = new RectHV(node.rect.xmin(), node.rect.ymin(), node.rect.xmax(), node.p.y());
-                    node.lb = new Node(p, r, VERTICAL);
-                    size++;
+                    node.lb = new Node(p, r, VERTICAL, size++);
+                    found = node.lb;
                 } else {
                     node.lb = insert(node.lb, p);
                 }
             } else {
                 if (node.rt == null) {
                     RectHV r = new RectHV(node.rect.xmin(), node.p.y(), node.rect.xmax(), node.rect.ymax());
-                    node.rt = new Node(p, r, VERTICAL);
-                    size++;
+                    node.rt = new Node(p, r, VERTICAL, size++);
+                    found = node.rt;
                 } else {
                     node.rt = insert(node.rt, p);
                 }
@@ -95,58 +258,192 @@ public class KdTree {
     public Point2D nearest(Point2D query) {
         if (query == null) throw new IllegalArgumentException("ponto nulo");
         if (isEmpty()) return null;
-        return nearest(root, query, root.p);
+        return nearest(root, query.x(), query.y(), null).p;
+    }
+
+    /**
+     * Id do ponto vivo mais próximo de (qx, qy), ou -1 se não houver nenhum.
+     */
+    public int nearest(double qx, double qy) {
+        if (isEmpty()) return -1;
+        return nearest(root, qx, qy, null).id;
     }
 
-    private Point2D nearest(Node node, Point2D query, Point2D champion) {
-        if (node == null) return champion;
+    private Node nearest(Node node, double qx, double qy, Node champion) {
+        if (node == null || node.live == 0) return champion;
 
-        double bestDist = query.distanceSquaredTo(champion);
-        double nodeDist = query.distanceSquaredTo(node.p);
-        if (nodeDist < bestDist) {
-            champion = node.p;
-            bestDist = nodeDist;
+        if (!node.deleted && (champion == null
+                || distanceSquared(node.p, qx, qy) < distanceSquared(champion.p, qx, qy))) {
+            champion = node;
         }
 
         Node first = node.lb;
         Node second = node.rt;
+        if (first != null && second != null
+                && distanceSquared(second.rect, qx, qy) < distanceSquared(first.rect, qx, qy)) {
+            first = node.rt;
+            second = node.lb;
+        }
 
-        if (node.lb != null && node.rt != null) {
-            double distLb = node.lb.rect.distanceSquaredTo(query);
-            double distRt = node.rt.rect.distanceSquaredTo(query);
-            if (distLb < distRt) {
-                first = node.lb; second = node.rt;
-            } else {
-                first = node.rt; second = node.lb;
-            }
+        if (first != null && (champion == null
+                || distanceSquared(first.rect, qx, qy) < distanceSquared(champion.p, qx, qy))) {
+            champion = nearest(first, qx, qy, champion);
         }
+        if (second != null && (champion == null
+                || distanceSquared(second.rect, qx, qy) < distanceSquared(champion.p, qx, qy))) {
+            champion = nearest(second, qx, qy, champion);
+        }
+        return champion;
+    }
 
-        if (first != null && first.rect.distanceSquaredTo(query) < bestDist) {
-            champion = nearest(first, query, champion);
-            bestDist = query.distanceSquaredTo(champion);
+    /**
+     * Os k pontos vivos mais próximos de query, do mais próximo ao mais distante.
+     */
+    public Point2D[] nearest(Point2D query, int k) {
+        if (query == null) throw new IllegalArgumentException("ponto nulo");
+        k = Math.min(k, live());
+        if (k <= 0) return new Point2D[0];
+        if (heapIds.length < k) {
+            heapIds = new int[k];
+            heapDist2 = new double[k];
         }
+        int found = nearest(query.x(), query.y(), k, heapIds, heapDist2);
+        Point2D[] result = new Point2D[found];
+        for (int i = 0; i < found; i++) result[i] = byId[heapIds[i]];
+        return result;
+    }
+
+    /**
+     * Ids dos k pontos vivos mais próximos de (qx, qy), em ordem crescente de distância,
+     * com as distâncias ao quadrado em dist2[] (como em ArrayKdTree). Devolve quantos.
+     * ids[] e dist2[] servem de heap durante a busca; nada é alocado.
+     */
+    public int nearest(double qx, double qy, int k, int[] ids, double[] dist2) {
+        k = Math.min(k, live());
+        if (k <= 0) return 0;
+        int found = nearest(root, qx, qy, k, ids, dist2, 0);
+        sortHeap(ids, dist2, found);
+        return found;
+    }
+
+    // ids[0, count) é um heap máximo por dist2: o pior dos k atuais fica na raiz.
+    private int nearest(Node node, double qx, double qy, int k, int[] heap, double[] dist2, int count) {
+        if (node == null || node.live == 0) return count;
+        if (count == k && distanceSquared(node.rect, qx, qy) >= dist2[0]) return count;
 
-        if (second != null && second.rect.distanceSquaredTo(query) < bestDist) {
-            champion = nearest(second, query, champion);
+        if (!node.deleted) {
+            double d = distanceSquared(node.p, qx, qy);
+            if (count < k) {
+                heap[count] = node.id;
+                dist2[count] = d;
+                siftUp(heap, dist2, count++);
+            } else if (d < dist2[0]) {
+                heap[0] = node.id;
+                dist2[0] = d;
+                siftDown(heap, dist2, 0, count);
+            }
         }
 
-        return champion;
+        Node first = node.lb;
+        Node second = node.rt;
+        if (first != null && second != null
+                && distanceSquared(second.rect, qx, qy) < distanceSquared(first.rect, qx, qy)) {
+            first = node.rt;
+            second = node.lb;
+        }
+        count = nearest(first, qx, qy, k, heap, dist2, count);
+        return nearest(second, qx, qy, k, heap, dist2, count);
     }
 
-    public boolean contains(Point2D p) {
-        if (p == null) throw new IllegalArgumentException("ponto nulo");
-        return contains(root, p);
+    // Heapsort do heap máximo: deixa heap[0, count) em ordem crescente de distância.
+    private static void sortHeap(int[] heap, double[] dist2, int count) {
+        for (int last = count - 1; last > 0; last--) {
+            swap(heap, dist2, 0, last);
+            siftDown(heap, dist2, 0, last);
+        }
     }
 
-    private boolean contains(Node node, Point2D p) {
-        if (node == null) return false;
-        if (node.p.equals(p)) return true;
-        if (node.orientation == VERTICAL) {
-            if (p.x() < node.p.x()) return contains(node.lb, p);
-            else return contains(node.rt, p);
-        } else {
-            if (p.y() < node.p.y()) return contains(node.lb, p);
-            else return contains(node.rt, p);
+    private static void siftUp(int[] heap, double[] dist2, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (dist2[parent] >= dist2[i]) return;
+            swap(heap, dist2, i, parent);
+            i = parent;
         }
     }
+
+    private static void siftDown(int[] heap, double[] dist2, int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && dist2[child + 1] > dist2[child]) child++;
+            if (dist2[i] >= dist2[child]) return;
+            swap(heap, dist2, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] heap, double[] dist2, int i, int j) {
+        int t = heap[i];
+        heap[i] = heap[j];
+        heap[j] = t;
+        double d = dist2[i];
+        dist2[i] = dist2[j];
+        dist2[j] = d;
+    }
+
+    /**
+     * Pontos vivos a distância <= r de query, em ordem qualquer.
+     */
+    public List<Point2D> range(Point2D query, double r) {
+        if (query == null) throw new IllegalArgumentException("ponto nulo");
+        List<Point2D> result = new ArrayList<>();
+        range(root, query.x(), query.y(), r * r, result);
+        return result;
+    }
+
+    private static void range(Node node, double qx, double qy, double r2, List<Point2D> result) {
+        if (node == null || node.live == 0 || distanceSquared(node.rect, qx, qy) > r2) return;
+        if (!node.deleted && distanceSquared(node.p, qx, qy) <= r2) result.add(node.p);
+        range(node.lb, qx, qy, r2, result);
+        range(node.rt, qx, qy, r2, result);
+    }
+
+    /**
+     * Pontos vivos dentro do retângulo rect (bordas incluídas), em ordem qualquer.
+     */
+    public List<Point2D> range(RectHV rect) {
+        if (rect == null) throw new IllegalArgumentException("retângulo nulo");
+        List<Point2D> result = new ArrayList<>();
+        range(root, rect, result);
+        return result;
+    }
+
+    private static void range(Node node, RectHV rect, List<Point2D> result) {
+        if (node == null || node.live == 0 || !node.rect.intersects(rect)) return;
+        if (!node.deleted && rect.contains(node.p)) result.add(node.p);
+        range(node.lb, rect, result);
+        range(node.rt, rect, result);
+    }
+
+    private static double distanceSquared(Point2D p, double qx, double qy) {
+        double dx = p.x() - qx;
+        double dy = p.y() - qy;
+        return dx * dx + dy * dy;
+    }
+
+    private static double distanceSquared(RectHV r, double qx, double qy) {
+        double dx = 0.0, dy = 0.0;
+        if (qx < r.xmin()) dx = qx - r.xmin();
+        else if (qx > r.xmax()) dx = qx - r.xmax();
+        if (qy < r.ymin()) dy = qy - r.ymin();
+        else if (qy > r.ymax()) dy = qy - r.ymax();
+        return dx * dx + dy * dy;
+    }
+
+    public boolean contains(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("ponto nulo");
+        Node node = find(p);
+        return node != null && !node.deleted;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+/**
+ * Melhoria de profundidade variável no estilo Lin–Kernighan, feita com trocas 2-opt
+ * encadeadas (como na versão "LK-2opt" de Johnson e McGeoch).
+ *
+ * A partir de uma aresta (t1, t2), cada passo escolhe t3 na lista de candidatos de t2
+ * (com ganho parcial g - d(t2, t3) positivo), quebra a aresta (t3, t4) e fecha o ciclo
+ * com (t4, t1). O passo é aplicado de fato ao ciclo, t4 vira o novo t2 e a cadeia segue
+ * até maxDepth passos. No fim, a cadeia é desfeita até o prefixo de maior ganho.
+ * Arestas acrescentadas na cadeia não podem ser quebradas de novo.
+ *
+ * A busca respeita um orçamento de tempo e registra a curva comprimento x tempo.
+ */
+public class LinKernighan {
+
+    private static final double EPS = 1e-10;
+    public static final int DEFAULT_DEPTH = 50;
+
+    private final DistanceCache distances;
+    private final CandidateGraph candidates;
+    private final int maxDepth;
+    private final int[] chain; // (t2, t3, t4) de cada passo da cadeia atual
+
+    private double[] curveTimes = new double[16];
+    private double[] curveLengths = new double[16];
+    private int curveSize;
+
+    public LinKernighan(PointSet points, CandidateGraph candidates) {
+        this(points, candidates, DEFAULT_DEPTH);
+    }
+
+    public LinKernighan(PointSet points, CandidateGraph candidates, int maxDepth) {
+        this(new DistanceCache(points, candidates), maxDepth);
+    }
+
+    // As listas de candidatos são as do grafo para o qual o cache foi construído.
+    public LinKernighan(DistanceCache distances, int maxDepth) {
+        this.distances = distances;
+        this.candidates = distances.candidates();
+        this.maxDepth = maxDepth;
+        this.chain = new int[3 * maxDepth];
+    }
+
+    /**
+     * Melhora o ciclo até não haver mais cadeias de ganho positivo ou até esgotar
+     * o orçamento (em segundos). Devolve o quanto o comprimento diminuiu.
+     */
+    public double optimize(TourOrder tour, double seconds) {
+        int n = tour.size();
+        long start = System.nanoTime();
+        long deadline = start + (long) (seconds * 1e9);
+        long sampleEvery = Math.max(Math.min((long) (seconds * 1e9) / 100, 100_000_000L), 1_000_000L);
+        long nextSample = start + sampleEvery;
+
+        double length = distances.points().tourLength(tour.toArray());
+        curveSize = 0;
+        record(0.0, length);
+        if (n < 8) return 0.0;
+
+        ActiveQueue queue = new ActiveQueue(n);
+        for (int city : tour.toArray()) {
+            queue.push(city);
+        }
+
+        double gain = 0.0;
+        int steps = 0;
+        while (!queue.isEmpty()) {
+            int t1 = queue.pop();
+            double g = improveCity(tour, t1, queue);
+            if (g > 0) {
+                gain += g;
+                queue.push(t1);
+            }
+            if ((++steps & 127) == 0) {
+                long now = System.nanoTime();
+                if (now >= nextSample) {
+                    record((now - start) / 1e9, length - gain);
+                    nextSample = now + sampleEvery;
+                }
+                if (now >= deadline) break;
+            }
+        }
+        record((System.nanoTime() - start) / 1e9, length - gain);
+        return gain;
+    }
+
+    // Curva de melhoria da última chamada de optimize(): instantes (s) e comprimentos.
+    public double[] curveTimes() {
+        return Arrays.copyOf(curveTimes, curveSize);
+    }
+
+    public double[] curveLengths() {
+        return Arrays.copyOf(curveLengths, curveSize);
+    }
+
+    private void record(double time, double length) {
+        if (curveSize == curveTimes.length) {
+            curveTimes = Arrays.copyOf(curveTimes, 2 * curveSize);
+            curveLengths = Arrays.copyOf(curveLengths, 2 * curveSize);
+        }
+        curveTimes[curveSize] = time;
+        curveLengths[curveSize] = length;
+        curveSize++;
+    }
+
+    private double improveCity(TourOrder tour, int t1, ActiveQueue queue) {
+        for (int side = 0; side < 2; side++) {
+            int t2 = side == 0 ? tour.next(t1) : tour.prev(t1);
+            double g = dist(t1, t2);
+            double bestGain = EPS;
+            int bestDepth = 0;
+            int depth = 0;
+
+            while (depth < maxDepth) {
+                boolean forward = tour.next(t1) == t2;
+                int t3 = -1;
+                int t4 = -1;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (int j = candidates.start(t2), end = candidates.end(t2); j < end; j++) {
+                    int c = candidates.target(j);
+                    double g1 = g - distances.neighbor(t2, j, c);
+                    if (g1 <= EPS) break;
+                    if (c == t1) continue;
+                    int d = forward ? tour.prev(c) : tour.next(c);
+                    if (d == t2 || d == t1 || added(depth, c, d)) continue;
+                    double score = g1 + dist(c, d);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        t3 = c;
+                        t4 = d;
+                    }
+                }
+                if (t3 < 0) break;
+
+                // Quebra (t1,t2) e (t4,t3); acrescenta (t2,t3) e (t1,t4).
+                OrOpt.exchange(tour, t1, t2, t4, t3);
+                chain[3 * depth] = t2;
+                chain[3 * depth + 1] = t3;
+                chain[3 * depth + 2] = t4;
+                depth++;
+
+                g = bestScore;
+                double closed = g - dist(t4, t1);
+                if (closed > bestGain) {
+                    bestGain = closed;
+                    bestDepth = depth;
+                }
+                t2 = t4;
+            }
+
+            // Desfaz os passos além do melhor prefixo, do último para o primeiro.
+            while (depth > bestDepth) {
+                depth--;
+                int s2 = chain[3 * depth], s3 = chain[3 * depth + 1], s4 = chain[3 * depth + 2];
+                OrOpt.exchange(tour, t1, s4, s2, s3);
+            }
+            if (bestDepth > 0) {
+                queue.push(t1);
+                for (int i = 0; i < 3 * bestDepth; i++) {
+                    queue.push(chain[i]);
+                }
+                return bestGain;
+            }
+        }
+        return 0.0;
+    }
+
+    // true se (a, b) é uma das arestas (t2, t3) acrescentadas nos primeiros "depth" passos.
+    private boolean added(int depth, int a, int b) {
+        for (int i = 0; i < depth; i++) {
+            int x = chain[3 * i], y = chain[3 * i + 1];
+            if ((x == a && y == b) || (x == b && y == a)) return true;
+        }
+        return false;
+    }
+
+    private double dist(int i, int j) {
+        return distances.dist(i, j);
+    }
+}
@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Leitor paralelo para instâncias muito grandes (milhões de pontos) no formato texto
+ * "w h" + "x y". O arquivo é mapeado em memória com FileChannel.map e dividido em
+ * blocos que terminam em quebras de linha; cada bloco é processado em uma thread.
+ *
+ * São duas passadas: a primeira conta os tokens de cada bloco, para saber em que
+ * posição do vetor final cada bloco começa; a segunda converte os números direto
+ * para um único par de vetores contíguos xs/ys.
+ */
+public final class MappedPointReader {
+
+    // Cada bloco é mapeado separadamente; MappedByteBuffer é limitado a 2 GiB.
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+    private static final int CHUNKS_PER_CORE = 4;
+
+    private MappedPointReader() { }
+
+    public static PointSet read(String filename) {
+        return read(filename, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static PointSet read(String filename, int threads) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return read(channel, Math.max(1, threads));
+        } catch (IOException e) {
+            throw new UncheckedIOException("não foi possível ler " + filename, e);
+        }
+    }
+
+    private static PointSet read(FileChannel channel, int threads) throws IOException {
+        long fileSize = channel.size();
+
+        // Cabeçalho "w h": lido de uma pequena janela no início do arquivo.
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(fileSize, 256));
+        channel.read(head, 0);
+        int[] cursor = new int[1];
+        char[] token = new char[64];
+        int width = (int) nextToken(head, cursor, head.position(), token);
+        int height = (int) nextToken(head, cursor, head.position(), token);
+        long dataStart = cursor[0];
+
+        // Fronteiras dos blocos, ajustadas para logo após o próximo '\n'.
+        long dataSize = fileSize - dataStart;
+        int chunks = (int) Math.max((long) threads * CHUNKS_PER_CORE, (dataSize + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        chunks = (int) Math.max(1, Math.min(chunks, dataSize / 64 + 1));
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = dataStart;
+        bounds[chunks] = fileSize;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int c = 1; c < chunks; c++) {
+            long b = Math.max(bounds[c - 1], dataStart + dataSize * c / chunks);
+            bounds[c] = nextLineStart(channel, b, fileSize, probe);
+        }
+
+        MappedByteBuffer[] maps = new MappedByteBuffer[chunks];
+        for (int c = 0; c < chunks; c++) {
+            maps[c] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[c], bounds[c + 1] - bounds[c]);
+        }
+
+        // 1ª passada: tokens por bloco.
+        long[] tokens = new long[chunks + 1];
+        forEachChunk(chunks, threads, c -> tokens[c + 1] = countTokens(maps[c]));
+        for (int c = 0; c < chunks; c++) {
+            tokens[c + 1] += tokens[c];
+        }
+        if (tokens[chunks] % 2 != 0) throw new IllegalStateException("número ímpar de coordenadas");
+        if (tokens[chunks] / 2 > Integer.MAX_VALUE - 8) throw new IllegalStateException("pontos demais");
+
+        int n = (int) (tokens[chunks] / 2);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+
+        // 2ª passada: conversão direto para a posição final.
+        forEachChunk(chunks, threads, c -> parseChunk(maps[c], tokens[c], xs, ys));
+        return new PointSet(width, height, xs, ys, n);
+    }
+
+    private static void forEachChunk(int chunks, int threads, IntConsumer task) {
+        if (threads == 1) {
+            for (int c = 0; c < chunks; c++) task.accept(c);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(task);
+        }
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long fileSize, ByteBuffer probe)
+            throws IOException {
+        long position = from;
+        while (position < fileSize) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    private static long countTokens(ByteBuffer buf) {
+        long count = 0;
+        boolean inToken = false;
+        for (int i = 0, limit = buf.limit(); i < limit; i++) {
+            boolean text = buf.get(i) > ' ';
+            if (text && !inToken) count++;
+            inToken = text;
+        }
+        return count;
+    }
+
+    private static void parseChunk(ByteBuffer buf, long firstToken, double[] xs, double[] ys) {
+        int[] cursor = new int[1];
+        char[] token = new char[64];
+        int limit = buf.limit();
+        long t = firstToken;
+        while (true) {
+            int i = cursor[0];
+            while (i < limit && buf.get(i) <= ' ') i++;
+            cursor[0] = i;
+            if (i == limit) return;
+            double v = nextToken(buf, cursor, limit, token);
+            int point = (int) (t >>> 1);
+            if ((t & 1) == 0) xs[point] = v;
+            else ys[point] = v;
+            t++;
+        }
+    }
+
+    // Lê o token que começa em cursor[0] (após espaços) e avança o cursor.
+    private static double nextToken(ByteBuffer buf, int[] cursor, int limit, char[] token) {
+        int i = cursor[0];
+        while (i < limit && buf.get(i) <= ' ') i++;
+        int len = 0;
+        while (i < limit && buf.get(i) > ' ') {
+            if (len == token.length) throw new NumberFormatException("token longo demais");
+            token[len++] = (char) buf.get(i++);
+        }
+        cursor[0] = i;
+        if (len == 0) throw new IllegalStateException("fim de arquivo inesperado");
+        return PointReader.parseDouble(token, len);
+    }
+}
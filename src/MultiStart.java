@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import algs4.StdRandom;
+
+/**
+ * Construção com várias partidas: constrói um ciclo por inserção pelo vizinho mais
+ * próximo para cada permutação da ordem de inserção, em paralelo num ForkJoinPool,
+ * e fica com o menor.
+ *
+ * As permutações são sorteadas antes, em sequência, com StdRandom.setSeed(seed), e a
+ * partida 0 usa a ordem do arquivo. Empates ficam com a partida de menor número; assim
+ * o resultado depende só da semente e do número de partidas, não do número de threads.
+ */
+public class MultiStart {
+
+    private final PointSet points;
+    private final boolean naive;
+
+    private double[] lengths;
+    private int best;
+
+    // naive = true usa a varredura de insertNearestNaive; false usa a ArrayKdTree.
+    public MultiStart(PointSet points, boolean naive) {
+        this.points = points;
+        this.naive = naive;
+    }
+
+    /**
+     * Executa "starts" partidas com "threads" threads e devolve a ordem do melhor ciclo.
+     */
+    public int[] run(int starts, long seed, int threads) {
+        if (starts < 1) throw new IllegalArgumentException("starts < 1");
+        int n = points.size();
+        int[][] orders = new int[starts][];
+        StdRandom.setSeed(seed);
+        orders[0] = new int[n];
+        for (int i = 0; i < n; i++) orders[0][i] = i;
+        for (int s = 1; s < starts; s++) {
+            orders[s] = StdRandom.permutation(n);
+        }
+
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (int s = 0; s < starts; s++) {
+            int[] order = orders[s];
+            tasks.add(() -> {
+                IndexedTour tour = new IndexedTour(points);
+                tour.insertAll(order, naive);
+                return tour.order();
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            List<Future<int[]>> results = pool.invokeAll(tasks);
+            lengths = new double[starts];
+            int[] bestOrder = null;
+            for (int s = 0; s < starts; s++) {
+                int[] order = results.get(s).get();
+                lengths[s] = points.tourLength(order);
+                if (bestOrder == null || lengths[s] < lengths[best]) {
+                    best = s;
+                    bestOrder = order;
+                }
+            }
+            return bestOrder;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("construção interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("falha em uma das partidas", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public int bestStart() {
+        return best;
+    }
+
+    public double bestLength() {
+        return lengths[best];
+    }
+
+    // Comprimento obtido em cada partida, na ordem das partidas.
+    public double[] lengths() {
+        return lengths.clone();
+    }
+}
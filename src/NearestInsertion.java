@@ -1,38 +1,62 @@
-import algs4.In;
 import algs4.StdOut;
 import algs4.StdDraw;
+import java.util.Arrays;
 
 public class NearestInsertion {
 
+    // Orçamento do subgradiente de Held–Karp usado no gap (desligado com "sem-hk").
+    private static final double HELD_KARP_SECONDS = 2.0;
+
     public static void main(String[] args) {
         if (args.length == 0) {
-            StdOut.println("Uso: java NearestInsertion <caminho-do-arquivo>");
+            StdOut.println("Uso: java NearestInsertion <caminho-do-arquivo> [partidas] [semente] [sem-hk]");
             return;
         }
+        // "sem-hk" no fim: só o comprimento, sem calcular o limite de Held–Karp.
+        boolean heldKarp = !args[args.length - 1].equals("sem-hk");
+        if (!heldKarp) args = Arrays.copyOf(args, args.length - 1);
 
         // Usa o caminho fornecido como argumento
-        In in = new In(args[0]);
+        PointSet points = Instances.load(args[0]);
 
-        int width = in.readInt();
-        int height = in.readInt();
+        int width = points.width();
+        int height = points.height();
         int border = 20;
         StdDraw.setCanvasSize(width, height + border);
         StdDraw.setXscale(0, width);
         StdDraw.setYscale(-border, height);
         StdDraw.enableDoubleBuffering();
 
-        Tour tour = new Tour();
-        while (!in.isEmpty()) {
-            double x = in.readDouble();
-            double y = in.readDouble();
-            Point p = new Point(x, y);
-            tour.insertNearest(p);
+        Tour tour;
+        if (args.length > 1) {
+            // Várias partidas em paralelo, cada uma com uma ordem de inserção sorteada.
+            int starts = Integer.parseInt(args[1]);
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 123456789L;
+            MultiStart multi = new MultiStart(points, false);
+            int[] order = multi.run(starts, seed, Runtime.getRuntime().availableProcessors());
+            tour = new Tour(points, order);
+            StdOut.printf("Melhor de %d partidas: partida %d\n", starts, multi.bestStart());
+        } else {
+            tour = new Tour();
+            tour.insertAll(points);
         }
 
         tour.draw();
         StdDraw.show();
         StdOut.println(tour);
-        StdOut.printf("Comprimento do ciclo = %.4f\n", tour.length());
+        double length = tour.length();
+        if (!heldKarp) {
+            StdOut.printf("Comprimento do ciclo = %.4f\n", length);
+        } else {
+            // O limite é aproximado (grafo de candidatos esparso) e pode passar um pouco
+            // do ótimo; o gap impresso não fica negativo.
+            double lower = new HeldKarp(points).run(length, HELD_KARP_SECONDS);
+            if (lower > 0 && !Double.isInfinite(lower))
+                StdOut.printf("Comprimento do ciclo = %.4f (gap = %.2f%% sobre o limite aproximado de Held–Karp %.4f)\n",
+                        length, Math.max(0.0, 100.0 * (length - lower) / lower), lower);
+            else
+                StdOut.printf("Comprimento do ciclo = %.4f (limite aproximado de Held–Karp = %.4f)\n", length, lower);
+        }
         StdOut.printf("Número de pontos = %d\n", tour.size());
     }
 }
@@ -0,0 +1,43 @@
+/**
+ * Heurística do vizinho mais próximo de fato (a descrita no README): parte de um
+ * ponto e vai sempre para o ponto ainda não visitado mais próximo do atual; no fim,
+ * volta ao início. Os pontos não visitados ficam numa ArrayKdTree construída de uma
+ * vez; cada ponto visitado é removido (marcado), e as contagens de pontos vivos por
+ * subárvore deixam cada passo em tempo logarítmico na prática.
+ *
+ * (Tour.insertNearest, apesar do nome, é inserção pelo vizinho mais próximo: o ponto
+ * entra no ciclo já existente, na ordem da entrada.)
+ */
+public class NearestNeighborWalk {
+
+    private NearestNeighborWalk() { }
+
+    // Caminhada a partir do ponto 0.
+    public static int[] order(PointSet points) {
+        return order(points, 0);
+    }
+
+    /**
+     * Ids na ordem da caminhada a partir do ponto start.
+     */
+    public static int[] order(PointSet points, int start) {
+        int n = points.size();
+        int[] order = new int[n];
+        if (n == 0) return order;
+        ArrayKdTree unvisited = ArrayKdTree.build(points);
+        int current = start;
+        unvisited.remove(current);
+        order[0] = current;
+        for (int i = 1; i < n; i++) {
+            current = unvisited.nearest(points.x(current), points.y(current));
+            unvisited.remove(current);
+            order[i] = current;
+        }
+        return order;
+    }
+
+    // O mesmo ciclo na representação de Tour.
+    public static Tour tour(PointSet points) {
+        return new Tour(points, order(points));
+    }
+}
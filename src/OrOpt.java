@@ -0,0 +1,128 @@
+/**
+ * Busca local Or-opt: move segmentos de 1 a 3 cidades consecutivas para a melhor
+ * aresta (u, v) entre as vizinhas, na lista de candidatos, das pontas do segmento.
+ *
+ * O ganho de cada movimento é avaliado em O(1):
+ *   remoção   d(p, s1) + d(s2, nx) - d(p, nx)
+ *   inserção  d(u, s1) + d(s2, v) - d(u, v)   (ou com o segmento invertido)
+ * e o ganho total é acumulado movimento a movimento, de modo que o novo comprimento
+ * (anterior - ganho) é conhecido sem percorrer o ciclo.
+ * O movimento em si é aplicado como uma sequência de até três trocas 2-opt.
+ */
+public class OrOpt {
+
+    private static final double EPS = 1e-10;
+    private static final int MAX_SEGMENT = 3;
+
+    private final DistanceCache distances;
+    private final CandidateGraph candidates;
+    private double gain;
+
+    public OrOpt(PointSet points, CandidateGraph candidates) {
+        this(new DistanceCache(points, candidates));
+    }
+
+    // Compartilha as distâncias já calculadas (por exemplo, entre 2-opt e Or-opt).
+    public OrOpt(DistanceCache distances) {
+        this.distances = distances;
+        this.candidates = distances.candidates();
+    }
+
+    /**
+     * Aplica movimentos Or-opt de melhoria até não haver mais nenhum.
+     * Devolve o quanto o comprimento do ciclo diminuiu.
+     */
+    public double optimize(TourOrder tour) {
+        int n = tour.size();
+        if (n < MAX_SEGMENT + 3) return 0.0;
+        gain = 0.0;
+
+        ActiveQueue queue = new ActiveQueue(n);
+        for (int city : tour.toArray()) {
+            queue.push(city);
+        }
+        while (!queue.isEmpty()) {
+            int a = queue.pop();
+            if (improveCity(tour, a, queue)) queue.push(a);
+        }
+        return gain;
+    }
+
+    private boolean improveCity(TourOrder tour, int a, ActiveQueue queue) {
+        for (int dir = 0; dir < 2; dir++) {
+            boolean forward = dir == 0;
+            int s1 = a;
+            int s2 = a;
+            for (int len = 1; len <= MAX_SEGMENT; len++) {
+                if (len > 1) s2 = step(tour, s2, forward);
+                int p = step(tour, s1, !forward);
+                int nx = step(tour, s2, forward);
+                if (p == s2 || nx == s1 || p == nx) break;
+                double removeGain = dist(p, s1) + dist(s2, nx) - dist(p, nx);
+                if (removeGain <= EPS) continue;
+                if (tryInsert(tour, s1, s2, p, nx, removeGain, s1, forward, queue)) return true;
+                if (len > 1 && tryInsert(tour, s1, s2, p, nx, removeGain, s2, forward, queue)) return true;
+            }
+        }
+        return false;
+    }
+
+    // Procura a aresta (u, v) perto de "end" (uma das pontas do segmento) onde o segmento
+    // s1..s2 (no sentido dado por forward) cabe com ganho positivo; aplica o primeiro achado.
+    private boolean tryInsert(TourOrder tour, int s1, int s2, int p, int nx, double removeGain,
+                              int end, boolean forward, ActiveQueue queue) {
+        for (int j = candidates.start(end), last = candidates.end(end); j < last; j++) {
+            int c = candidates.target(j);
+            if (distances.neighbor(end, j, c) >= removeGain - EPS) break;
+            if (inSegment(tour, c, s1, s2, forward)) continue;
+            for (int side = 0; side < 2; side++) {
+                int u = side == 0 ? c : step(tour, c, !forward);
+                int v = side == 0 ? step(tour, c, forward) : c;
+                if (u == s2 || v == s1 || inSegment(tour, u, s1, s2, forward)
+                        || inSegment(tour, v, s1, s2, forward)) continue;
+                double duv = dist(u, v);
+                double keep = dist(u, s1) + dist(s2, v) - duv;
+                double flip = dist(u, s2) + dist(s1, v) - duv;
+                double add = Math.min(keep, flip);
+                double delta = removeGain - add;
+                if (delta > EPS) {
+                    move(tour, s1, s2, p, nx, u, v, keep <= flip);
+                    gain += delta;
+                    queue.push(s1);
+                    queue.push(s2);
+                    queue.push(p);
+                    queue.push(nx);
+                    queue.push(u);
+                    queue.push(v);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // p [s1..s2] nx ... u v  ->  p nx ... u [s1..s2] v  (ou [s2..s1] se keep for false)
+    private static void move(TourOrder tour, int s1, int s2, int p, int nx, int u, int v, boolean keep) {
+        exchange(tour, p, s1, u, v);    // (p,s1),(u,v)   -> (p,u),(s1,v)
+        exchange(tour, u, p, s2, nx);   // (u,p),(s2,nx)  -> (u,s2),(p,nx)
+        if (keep) exchange(tour, u, s2, s1, v);  // (u,s2),(s1,v) -> (u,s1),(s2,v)
+    }
+
+    // Troca 2-opt: as arestas (a,b) e (c,d), percorridas no mesmo sentido, viram (a,c) e (b,d).
+    static void exchange(TourOrder tour, int a, int b, int c, int d) {
+        if (tour.next(a) == b) tour.reverse(b, c);
+        else tour.reverse(a, d);
+    }
+
+    private static int step(TourOrder tour, int city, boolean forward) {
+        return forward ? tour.next(city) : tour.prev(city);
+    }
+
+    private static boolean inSegment(TourOrder tour, int city, int s1, int s2, boolean forward) {
+        return forward ? tour.between(s1, city, s2) : tour.between(s2, city, s1);
+    }
+
+    private double dist(int i, int j) {
+        return distances.dist(i, j);
+    }
+}
@@ -0,0 +1,31 @@
+import algs4.Point2D;
+
+/**
+ * Contrato comum dos índices espaciais usados pelo Tour.
+ * Implementado por KdTree (nós encadeados) e ArrayKdTree (vetores primitivos).
+ */
+public interface PointIndex {
+
+    // Verdadeiro se não há pontos vivos (não removidos).
+    boolean isEmpty();
+
+    // Número de ids já atribuídos, inclusive os de pontos removidos.
+    int size();
+
+    // Número de pontos vivos.
+    int live();
+
+    void insert(Point2D p);
+
+    boolean contains(Point2D p);
+
+    Point2D nearest(Point2D query);
+
+    // Remove p, marcando-o como removido; devolve false se p não estava no índice.
+    boolean delete(Point2D p);
+
+    // Versões por coordenadas: os pontos são identificados pelo id devolvido em insert.
+    int insert(double x, double y);
+
+    int nearest(double x, double y);
+}
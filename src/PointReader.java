@@ -0,0 +1,137 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Leitor dos arquivos de instância ("w h" seguido de pares "x y").
+ * Os números são lidos direto de um buffer de bytes para vetores double[],
+ * sem Scanner e sem criar uma String por token.
+ */
+public final class PointReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Potências de 10 representadas exatamente em double (caminho rápido de Clinger).
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private char[] token = new char[64];
+
+    private PointReader(InputStream in) {
+        this.in = in;
+    }
+
+    public static PointSet read(String filename) {
+        try (InputStream in = new FileInputStream(filename)) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("não foi possível ler " + filename, e);
+        }
+    }
+
+    public static PointSet read(InputStream in) throws IOException {
+        PointReader reader = new PointReader(in);
+        int width = (int) reader.nextDouble();
+        int height = (int) reader.nextDouble();
+
+        double[] xs = new double[1024];
+        double[] ys = new double[1024];
+        int n = 0;
+        while (reader.skipWhitespace()) {
+            if (n == xs.length) {
+                xs = Arrays.copyOf(xs, 2 * n);
+                ys = Arrays.copyOf(ys, 2 * n);
+            }
+            xs[n] = reader.nextDouble();
+            ys[n] = reader.nextDouble();
+            n++;
+        }
+        return new PointSet(width, height, Arrays.copyOf(xs, n), Arrays.copyOf(ys, n), n);
+    }
+
+    // Pula espaços; devolve false no fim do arquivo.
+    private boolean skipWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) return false;
+            if (buf[pos] > ' ') return true;
+            pos++;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        limit = in.read(buf, 0, buf.length);
+        pos = 0;
+        if (limit < 0) limit = 0;
+        return limit > 0;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos];
+    }
+
+    // Copia o próximo token para o vetor reutilizável token[] e converte.
+    private double nextDouble() throws IOException {
+        if (!skipWhitespace()) throw new IllegalStateException("fim de arquivo inesperado");
+        int len = 0;
+        for (int c = peek(); c > ' '; c = peek()) {
+            if (len == token.length) token = Arrays.copyOf(token, 2 * len);
+            token[len++] = (char) c;
+            pos++;
+        }
+        return parseDouble(token, len);
+    }
+
+    // Também usado por MappedPointReader.
+    static double parseDouble(char[] s, int len) {
+        int i = 0;
+        boolean negative = false;
+        if (s[0] == '-' || s[0] == '+') {
+            negative = s[0] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        for (; i < len && s[i] >= '0' && s[i] <= '9'; i++) {
+            any = true;
+            mantissa = 10 * mantissa + (s[i] - '0');
+            if (mantissa != 0) digits++;
+        }
+        if (i < len && s[i] == '.') {
+            for (i++; i < len && s[i] >= '0' && s[i] <= '9'; i++) {
+                any = true;
+                mantissa = 10 * mantissa + (s[i] - '0');
+                if (mantissa != 0) digits++;
+                exponent--;
+            }
+        }
+        if (i < len && (s[i] == 'e' || s[i] == 'E') && i + 1 < len) {
+            try {
+                exponent += Integer.parseInt(new String(s, i + 1, len - i - 1));
+            } catch (NumberFormatException e) {
+                any = false;
+            }
+            i = len;
+        }
+        if (!any || i != len) throw new NumberFormatException("número inválido: " + new String(s, 0, len));
+
+        // Caminho rápido exato: mantissa e 10^|e| representáveis em double.
+        // Fora dele (mais de 15 dígitos ou expoente grande) delega para Double.parseDouble.
+        if (digits <= 15 && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POW10[exponent] : mantissa / POW10[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(s, 0, len));
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+/**
+ * Conjunto de pontos em estrutura de vetores (x e y em vetores primitivos separados),
+ * acessados pelo índice do ponto. As coordenadas podem ser guardadas em float64
+ * (padrão) ou em float32, que usa metade da memória nas instâncias com milhões de pontos.
+ *
+ * Tour, IndexedTour, as duas KdTree e os leitores trabalham sobre índices de um PointSet;
+ * Point fica apenas como visão de um ponto para desenho e toString.
+ */
+public class PointSet {
+
+    private final int width;
+    private final int height;
+    private int n;
+    private double[] xs;
+    private double[] ys;
+    private float[] fxs;
+    private float[] fys;
+
+    public PointSet(int width, int height, double[] xs, double[] ys, int n) {
+        if (xs.length < n || ys.length < n) throw new IllegalArgumentException("vetores menores que n");
+        this.width = width;
+        this.height = height;
+        this.xs = xs;
+        this.ys = ys;
+        this.n = n;
+    }
+
+    public PointSet(int width, int height, float[] xs, float[] ys, int n) {
+        if (xs.length < n || ys.length < n) throw new IllegalArgumentException("vetores menores que n");
+        this.width = width;
+        this.height = height;
+        this.fxs = xs;
+        this.fys = ys;
+        this.n = n;
+    }
+
+    // Conjunto vazio, que cresce com add().
+    public PointSet(boolean float32) {
+        this.width = 0;
+        this.height = 0;
+        if (float32) {
+            fxs = new float[16];
+            fys = new float[16];
+        } else {
+            xs = new double[16];
+            ys = new double[16];
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isFloat32() {
+        return fxs != null;
+    }
+
+    public double x(int i) {
+        return xs != null ? xs[i] : fxs[i];
+    }
+
+    public double y(int i) {
+        return ys != null ? ys[i] : fys[i];
+    }
+
+    // Acrescenta o ponto (x, y) e devolve o seu índice.
+    public int add(double x, double y) {
+        if (xs != null) {
+            if (n == xs.length) {
+                xs = Arrays.copyOf(xs, Math.max(16, 2 * n));
+                ys = Arrays.copyOf(ys, Math.max(16, 2 * n));
+            }
+            xs[n] = x;
+            ys[n] = y;
+        } else {
+            if (n == fxs.length) {
+                fxs = Arrays.copyOf(fxs, Math.max(16, 2 * n));
+                fys = Arrays.copyOf(fys, Math.max(16, 2 * n));
+            }
+            fxs[n] = (float) x;
+            fys[n] = (float) y;
+        }
+        return n++;
+    }
+
+    public double distance(int i, int j) {
+        double dx = x(i) - x(j);
+        double dy = y(i) - y(j);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // Comprimento do ciclo que visita os pontos na ordem dada.
+    public double tourLength(int[] order) {
+        double total = 0.0;
+        for (int i = 0; i < order.length; i++) {
+            total += distance(order[i], order[i + 1 == order.length ? 0 : i + 1]);
+        }
+        return total;
+    }
+
+    // Visão do ponto i para desenho e impressão.
+    public Point point(int i) {
+        return new Point(x(i), y(i));
+    }
+
+    // Cópia com as coordenadas em float32.
+    public PointSet toFloat32() {
+        float[] fx = new float[n];
+        float[] fy = new float[n];
+        for (int i = 0; i < n; i++) {
+            fx[i] = (float) x(i);
+            fy[i] = (float) y(i);
+        }
+        return new PointSet(width, height, fx, fy, n);
+    }
+}
@@ -0,0 +1,128 @@
+/* *****************************************************************************
+ *  Execução:    java TSPImprover arquivo [modo] [segundos] [array|2level] [nearest|greedy] [knn|delaunay]
+ *
+ *  Constrói o ciclo por inserção pelo vizinho mais próximo (IndexedTour, padrão)
+ *  ou pela construção gulosa por arestas (GreedyEdge, último argumento "greedy")
+ *  e em seguida aplica a busca local escolhida, informando comprimento e tempo
+ *  antes e depois da melhoria e a distância (gap) até o limite inferior dado pelo
+ *  peso da árvore geradora mínima (EuclideanMST).
+ *
+ *  Modos:
+ *      2opt    2-opt com listas dos k vizinhos mais próximos e bits "don't look" (padrão)
+ *      oropt   Or-opt: move segmentos de 1 a 3 cidades para perto dos seus vizinhos
+ *      2opt+oropt  2-opt seguido de Or-opt
+ *      lk      Lin–Kernighan (cadeias de 2-opt de profundidade limitada) com orçamento
+ *              de tempo (padrão 60 s); imprime a curva comprimento x tempo
+ *
+ *  As listas de candidatos são os 10 vizinhos mais próximos, em cache ao lado da
+ *  instância (arquivo.k10.knn), ou, com o último argumento "delaunay", as arestas
+ *  da triangulação de Delaunay (usadas também pela construção gulosa).
+ *
+ *  O quarto argumento escolhe a representação do ciclo durante a busca local:
+ *  array (ArrayTourOrder, padrão) ou 2level (TwoLevelTour, inversões em O(√n)).
+ *
+ **************************************************************************** */
+
+import algs4.StdOut;
+import algs4.Stopwatch;
+
+public class TSPImprover {
+
+    private static final int CANDIDATES = 10;
+
+    // Orçamento do subgradiente de Held–Karp (o limite do MST sai em uma passada só).
+    private static final double HELD_KARP_SECONDS = 2.0;
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            StdOut.println("Uso: java TSPImprover <arquivo> [2opt|oropt|2opt+oropt|lk] [segundos] [array|2level] [nearest|greedy] [knn|delaunay]");
+            return;
+        }
+        String mode = args.length > 1 ? args[1] : "2opt";
+        double budget = args.length > 2 ? Double.parseDouble(args[2]) : 60.0;
+        boolean twoLevel = args.length > 3 && args[3].equals("2level");
+        boolean greedy = args.length > 4 && args[4].equals("greedy");
+        boolean delaunay = args.length > 5 && args[5].equals("delaunay");
+        PointSet points = Instances.load(args[0]);
+
+        Stopwatch triangulation = new Stopwatch();
+        CandidateGraph delaunayGraph = delaunay ? new Delaunay(points).graph() : null;
+        double triangulationTime = triangulation.elapsedTime();
+
+        Stopwatch build = new Stopwatch();
+        int[] order;
+        if (greedy && delaunay) {
+            order = new GreedyEdge(points, delaunayGraph).run();
+        } else if (greedy) {
+            order = new GreedyEdge(points, CANDIDATES).run();
+        } else {
+            IndexedTour tour = new IndexedTour(points);
+            tour.insertAll();
+            order = tour.order();
+        }
+        double buildTime = build.elapsedTime();
+
+        double before = points.tourLength(order);
+        StdOut.printf("Construção: comprimento = %.4f, tempo = %.3f s\n", before, buildTime);
+
+        Stopwatch improve = new Stopwatch();
+        CandidateGraph candidates = delaunay ? delaunayGraph : CandidateGraph.cached(args[0], points, CANDIDATES);
+        double candidatesTime = delaunay ? triangulationTime : improve.elapsedTime();
+        TourOrder result = twoLevel ? new TwoLevelTour(points, order) : new ArrayTourOrder(order);
+        DistanceCache distances = new DistanceCache(points, candidates);
+        double gain;
+        switch (mode) {
+            case "2opt":
+                gain = new TwoOpt(distances).optimize(result);
+                break;
+            case "oropt":
+                gain = new OrOpt(distances).optimize(result);
+                break;
+            case "2opt+oropt":
+                gain = new TwoOpt(distances).optimize(result);
+                gain += new OrOpt(distances).optimize(result);
+                break;
+            case "lk":
+                LinKernighan lk = new LinKernighan(distances, LinKernighan.DEFAULT_DEPTH);
+                gain = lk.optimize(result, budget);
+                printCurve(lk);
+                break;
+            default:
+                StdOut.println("Modo desconhecido: " + mode);
+                return;
+        }
+        double improveTime = improve.elapsedTime();
+        double after = before - gain;
+        if (delaunay) StdOut.printf("Listas de candidatos (Delaunay): %.3f s\n", candidatesTime);
+        else StdOut.printf("Listas de candidatos (k = %d): %.3f s\n", CANDIDATES, candidatesTime);
+        StdOut.printf("%s: comprimento = %.4f (%.2f%% menor), tempo = %.3f s\n",
+                mode, after, 100.0 * (before - after) / before, improveTime);
+
+        Stopwatch bound = new Stopwatch();
+        EuclideanMST mst = delaunay ? new EuclideanMST(points, delaunayGraph) : new EuclideanMST(points);
+        printBound("Limite inferior (MST)", mst.weight(), after, bound.elapsedTime());
+
+        Stopwatch heldKarp = new Stopwatch();
+        double hk = new HeldKarp(points).run(after, HELD_KARP_SECONDS);
+        printBound("Limite de Held–Karp (aproximado)", hk, after, heldKarp.elapsedTime());
+    }
+
+    // O gap só é impresso quando o limite é positivo e finito, e nunca negativo: o de
+    // Held–Karp é calculado num grafo esparso e pode passar um pouco do ótimo.
+    private static void printBound(String name, double lower, double length, double seconds) {
+        if (lower > 0 && !Double.isInfinite(lower))
+            StdOut.printf("%s = %.4f, gap = %.2f%%, tempo = %.3f s\n",
+                    name, lower, Math.max(0.0, 100.0 * (length - lower) / lower), seconds);
+        else
+            StdOut.printf("%s = %.4f, tempo = %.3f s\n", name, lower, seconds);
+    }
+
+    private static void printCurve(LinKernighan lk) {
+        double[] times = lk.curveTimes();
+        double[] lengths = lk.curveLengths();
+        StdOut.println("Curva de melhoria (tempo s, comprimento):");
+        for (int i = 0; i < times.length; i++) {
+            StdOut.printf("  %8.3f  %.4f\n", times[i], lengths[i]);
+        }
+    }
+}
@@ -2,14 +2,32 @@
  *  VOCÊ NÃO PRECISA MODIFICAR ESTE ARQUIVO
  *
  *  Compilação:  javac TSPTimer.java
- *  Execução:    java -Xint TSPTimer n
+ *  Execução:    java -Xint TSPTimer n [kd|array|indexed]
+ *                java TSPTimer arquivo [kd|array|indexed]
+ *                java TSPTimer n|arquivo multi [partidas] [threads] [naive]
+ *                java TSPTimer n|arquivo cheapest|farthest|greedy|hilbert|nnwalk|mst
  *  Dependências: Tour.java Point.java Stopwatch.java StdOut.java
  *
  *  Mede o tempo da heurística do vizinho mais próximo gerando instâncias aleatórias de tamanho n.
+ *  Se o primeiro argumento não for um número, ele é tratado como arquivo de instância,
+ *  carregado com Instances.load (o tempo de carga é informado à parte).
  *
  *  Exemplo de execução:
  *  % java -Xint TSPTimer 1000
  *
+ *  O segundo argumento escolhe o índice espacial do Tour: kd (KdTree, padrão)
+ *  ou array (ArrayKdTree, vetores primitivos); indexed usa IndexedTour, que guarda
+ *  o ciclo em vetores de ids, sem nodeMap nem Point2D.
+ *
+ *  multi constrói um ciclo por partida (ordens de inserção sorteadas a partir da
+ *  semente fixa) em paralelo e informa o melhor; naive usa a inserção ingênua.
+ *  cheapest usa CheapestInsertion (inserção mais barata com heap de custos) e
+ *  farthest, IndexedTour.insertFarthest (inserção do mais distante); greedy usa
+ *  GreedyEdge (arestas mais curtas primeiro, com union-find); hilbert usa
+ *  HilbertOrder (ordem da curva de Hilbert, em paralelo); nnwalk usa
+ *  NearestNeighborWalk (caminhada do vizinho mais próximo); mst usa EuclideanMST
+ *  (ciclo da árvore dupla) e informa também o peso da MST, limite inferior do ótimo.
+ *
  *  Observação: os arquivos de entrada (caso utilizados) devem estar na pasta data/.
  *
  **************************************************************************** */
@@ -23,12 +41,29 @@
      public static void main(String[] args) {
          double lo = 0.0;
          double hi = 600.0;
+         String mode = args.length > 1 ? args[1] : "kd";
+         if (!args[0].matches("\\d+")) {
+             timeFile(args[0], mode, args);
+             return;
+         }
          int n = Integer.parseInt(args[0]);
  
         // gerar dados e executar a heurística de inserção pelo vizinho mais próximo
         StdRandom.setSeed(123456789L);
+        if (!mode.equals("kd") && !mode.equals("array")) {
+            Stopwatch timer = new Stopwatch();
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = StdRandom.uniformDouble(lo, hi);
+                ys[i] = StdRandom.uniformDouble(lo, hi);
+            }
+            PointSet points = new PointSet((int) hi, (int) hi, xs, ys, n);
+            timePointSet(points, mode, args, timer);
+            return;
+        }
         Stopwatch timer1 = new Stopwatch();
-        Tour tour1 = new Tour(true);
+        Tour tour1 = new Tour(mode.equals("array") ? new ArrayKdTree(n) : new KdTree());
         for (int i = 0; i < n; i++) {
             double x = StdRandom.uniformDouble(lo, hi);
             double y = StdRandom.uniformDouble(lo, hi);
@@ -40,5 +75,88 @@
         StdOut.println("Comprimento do ciclo = " + length1);
         StdOut.println("Inserção pelo vizinho mais próximo: " + elapsed1 + " segundos");
     }
+
+    private static void timeFile(String filename, String mode, String[] args) {
+        Stopwatch load = new Stopwatch();
+        PointSet points = Instances.load(filename);
+        StdOut.println("Carga de " + points.size() + " pontos: " + load.elapsedTime() + " segundos");
+        if (!mode.equals("kd") && !mode.equals("array")) {
+            timePointSet(points, mode, args, new Stopwatch());
+            return;
+        }
+
+        Stopwatch timer = new Stopwatch();
+        Tour tour = new Tour(mode.equals("array") ? new ArrayKdTree(points.size()) : new KdTree());
+        tour.insertAll(points);
+        double length = tour.length();
+        double elapsed = timer.elapsedTime();
+        StdOut.println("Comprimento do ciclo = " + length);
+        StdOut.println("Inserção pelo vizinho mais próximo: " + elapsed + " segundos");
+    }
+
+    // Heurísticas que trabalham direto sobre o PointSet, por ids.
+    private static void timePointSet(PointSet points, String mode, String[] args, Stopwatch timer) {
+        switch (mode) {
+            case "indexed":
+                timeIndexed(points, timer);
+                break;
+            case "multi":
+                timeMultiStart(points, args);
+                break;
+            case "cheapest":
+                report(points.tourLength(new CheapestInsertion(points).run()), timer, "Inserção mais barata");
+                break;
+            case "farthest": {
+                IndexedTour tour = new IndexedTour(points);
+                tour.insertFarthest();
+                report(tour.length(), timer, "Inserção do mais distante");
+                break;
+            }
+            case "greedy":
+                report(points.tourLength(new GreedyEdge(points).run()), timer, "Construção gulosa por arestas");
+                break;
+            case "hilbert":
+                report(points.tourLength(HilbertOrder.order(points)), timer, "Curva de Hilbert");
+                break;
+            case "nnwalk":
+                report(points.tourLength(NearestNeighborWalk.order(points)), timer, "Caminhada do vizinho mais próximo");
+                break;
+            case "mst": {
+                EuclideanMST mst = new EuclideanMST(points);
+                report(points.tourLength(mst.preorder()), timer, "Árvore dupla (MST)");
+                StdOut.println("Limite inferior (peso da MST) = " + mst.weight());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("modo desconhecido: " + mode);
+        }
+    }
+
+    private static void report(double length, Stopwatch timer, String heuristic) {
+        double elapsed = timer.elapsedTime();
+        StdOut.println("Comprimento do ciclo = " + length);
+        StdOut.println(heuristic + ": " + elapsed + " segundos");
+    }
+
+    private static void timeIndexed(PointSet points, Stopwatch timer) {
+        IndexedTour tour = new IndexedTour(points);
+        tour.insertAll();
+        double length = tour.length();
+        double elapsed = timer.elapsedTime();
+        StdOut.println("Comprimento do ciclo = " + length);
+        StdOut.println("Inserção pelo vizinho mais próximo: " + elapsed + " segundos");
+    }
+
+    private static void timeMultiStart(PointSet points, String[] args) {
+        int starts = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        boolean naive = args.length > 4 && args[4].equals("naive");
+        Stopwatch timer = new Stopwatch();
+        MultiStart multi = new MultiStart(points, naive);
+        multi.run(starts, 123456789L, threads);
+        double elapsed = timer.elapsedTime();
+        StdOut.println("Comprimento do ciclo = " + multi.bestLength()
+                + " (partida " + multi.bestStart() + " de " + starts + ", " + threads + " threads)");
+        StdOut.println("Inserção pelo vizinho mais próximo, várias partidas: " + elapsed + " segundos");
+    }
 }
- 
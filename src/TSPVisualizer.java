@@ -18,7 +18,6 @@
  **************************************************************************** */
 
  import java.util.ArrayList;
-import algs4.In;
 import algs4.StdDraw;
 import algs4.StdOut;
 
@@ -53,10 +52,10 @@ import algs4.StdOut;
          // inicializa a estrutura de dados com pontos do arquivo
          if (args.length > 0) {
              String filename = args[0];
-             In in = new In(filename);
+             PointSet input = Instances.load(filename);
  
-             xscale = in.readInt();
-             yscale = in.readInt();
+             xscale = input.width();
+             yscale = input.height();
  
              StdDraw.setXscale(0, xscale);
              StdDraw.setYscale(-70, yscale);
@@ -64,9 +63,9 @@ import algs4.StdOut;
              // imprime as dimensões
              StdOut.println(xscale + " " + yscale);
  
-             while (!in.isEmpty()) {
-                 double x = in.readDouble();
-                 double y = in.readDouble();
+             for (int i = 0; i < input.size(); i++) {
+                 double x = input.x(i);
+                 double y = input.y(i);
  
                  // imprime coordenadas dos novos pontos
                  StdOut.println(x + " " + y);
@@ -1,13 +1,12 @@
-import algs4.Point2D;
 import algs4.StdDraw;
 import algs4.StdOut;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class Tour {
 
+    // Cada nó guarda apenas o índice do ponto; as coordenadas ficam no PointSet "points".
     private static class Node {
-        private Point point;
+        private int id;
         private Node next;
         private Node prev; // predecessor for O(1) access
     }
@@ -15,20 +14,33 @@ public class Tour {
     private Node start;
     private int count;
     private final boolean useKdTree;
-    private KdTree kdTree;
-    private Map<Point2D, Node> nodeMap;
+    private PointIndex kdTree;
+    private Node[] nodeOfKd; // id no índice espacial -> nó do ciclo
+    private final PointSet points;
+
+    // Comprimento mantido a cada inserção (soma de Kahan dos acréscimos) e a sua
+    // compensação; com verify, length() confere o valor com a soma completa.
+    private double length;
+    private double lengthError;
+    private boolean verify;
 
     public Tour() {
         this(false);
     }
 
     public Tour(boolean useKdTree) {
-        this.useKdTree = useKdTree;
+        this(useKdTree ? new KdTree() : null);
+    }
+
+    // Usa o índice espacial informado (KdTree ou ArrayKdTree) em insertNearestKd.
+    public Tour(PointIndex index) {
+        this.useKdTree = index != null;
         this.start = null;
         this.count = 0;
+        this.points = new PointSet(false);
         if (useKdTree) {
-            this.kdTree = new KdTree();
-            this.nodeMap = new HashMap<>();
+            this.kdTree = index;
+            this.nodeOfKd = new Node[16];
         }
     }
 
@@ -40,23 +52,113 @@ public class Tour {
         insertNearestNaive(d);
     }
 
+    // Cria o ciclo que visita os pontos na ordem dada (usado após a busca local).
+    public Tour(Point[] order) {
+        this();
+        int[] ids = new int[order.length];
+        for (int i = 0; i < order.length; i++) ids[i] = points.add(order[i].x(), order[i].y());
+        link(ids);
+    }
+
+    /**
+     * Ciclo que visita os pontos de "points" na ordem dos índices (construções que
+     * devolvem int[]), sem criar objetos Point. As coordenadas são copiadas, na ordem,
+     * para o PointSet do próprio Tour; o de entrada não é alterado por inserções
+     * posteriores. order precisa ser uma permutação de 0..points.size()-1.
+     */
+    public Tour(PointSet points, int[] order) {
+        this();
+        int n = points.size();
+        if (order.length != n)
+            throw new IllegalArgumentException("a ordem tem " + order.length + " pontos, e não " + n);
+        boolean[] seen = new boolean[n];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            int p = order[i];
+            if (p < 0 || p >= n || seen[p])
+                throw new IllegalArgumentException("a ordem não é uma permutação: " + p + " na posição " + i);
+            seen[p] = true;
+            ids[i] = this.points.add(points.x(p), points.y(p));
+        }
+        link(ids);
+    }
+
+    // Liga os nós na ordem dada e calcula o comprimento uma vez.
+    private void link(int[] ids) {
+        Node last = null;
+        for (int id : ids) {
+            Node node = new Node();
+            node.id = id;
+            if (last == null) {
+                start = node;
+            } else {
+                last.next = node;
+                node.prev = last;
+            }
+            last = node;
+            count++;
+        }
+        if (last != null) {
+            last.next = start;
+            start.prev = last;
+        }
+        length = fullLength();
+    }
+
     public int size() {
         return count;
     }
 
+    // O(1): o comprimento é atualizado pelo acréscimo de cada inserção.
     public double length() {
+        if (verify) {
+            double full = fullLength();
+            if (Math.abs(full - length) > 1e-9 * Math.max(1.0, full))
+                throw new IllegalStateException("comprimento incremental " + length + " != " + full);
+        }
+        return length;
+    }
+
+    /**
+     * Liga a conferência do comprimento incremental: cada length() também percorre o
+     * ciclo (O(n)) e lança IllegalStateException se os dois valores divergirem.
+     */
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    // Soma de Kahan: o erro de arredondamento de cada acréscimo entra no seguinte.
+    private void addLength(double delta) {
+        double y = delta - lengthError;
+        double t = length + y;
+        lengthError = (t - length) - y;
+        length = t;
+    }
+
+    private double fullLength() {
         if (start == null || start.next == start)
             return 0.0;
 
         double total = 0.0;
         Node current = start;
         do {
-            total += current.point.distanceTo(current.next.point);
+            total += points.distance(current.id, current.next.id);
             current = current.next;
         } while (current != start);
         return total;
     }
 
+    // Pontos na ordem do ciclo, a partir de start.
+    public Point[] toArray() {
+        Point[] order = new Point[count];
+        Node current = start;
+        for (int i = 0; i < count; i++) {
+            order[i] = points.point(current.id);
+            current = current.next;
+        }
+        return order;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         if (start == null)
@@ -64,7 +166,7 @@ public class Tour {
 
         Node current = start;
         do {
-            sb.append(current.point.toString()).append("\n");
+            sb.append(points.point(current.id).toString()).append("\n");
             current = current.next;
         } while (current != start);
 
@@ -77,31 +179,47 @@ public class Tour {
 
         Node current = start;
         do {
-            current.point.drawTo(current.next.point);
+            int a = current.id;
+            int b = current.next.id;
+            StdDraw.line(points.x(a), points.y(a), points.x(b), points.y(b));
             current = current.next;
         } while (current != start);
     }
 
     public void insertNearest(Point p) {
+        insertNearest(p.x(), p.y());
+    }
+
+    // Insere, na ordem, todos os pontos de uma instância carregada (sem criar objetos Point).
+    public void insertAll(PointSet input) {
+        for (int i = 0; i < input.size(); i++) {
+            insertNearest(input.x(i), input.y(i));
+        }
+    }
+
+    private void insertNearest(double x, double y) {
         if (useKdTree) {
-            insertNearestKd(p); // ainda não implementado
+            insertNearestKd(x, y);
         } else {
-            insertNearestNaive(p);
+            insertNearestNaive(x, y);
         }
     }
 
     public void insertNearestNaive(Point p) {
+        insertNearestNaive(p.x(), p.y());
+    }
+
+    private void insertNearestNaive(double x, double y) {
+        int p = points.add(x, y);
+
         // Se o tour estiver vazio, cria o primeiro nó que aponta para si mesmo.
         if (start == null) {
             start = new Node();
-            start.point = p;
+            start.id = p;
             start.next = start;
             start.prev = start;
             count = 1;
-            if (useKdTree && nodeMap != null) {
-                nodeMap.put(new Point2D(p.x(), p.y()), start);
-                kdTree.insert(new Point2D(p.x(), p.y()));
-            }
+            if (useKdTree) indexNode(start);
             return;
         }
 
@@ -112,8 +230,8 @@ public class Tour {
         // Percorre o tour para encontrar o melhor local para inserir o novo ponto.
         do {
             // Calcula o aumento na distância total se 'p' for inserido aqui.
-            double oldDist = current.point.distanceTo(current.next.point);
-            double newDist = current.point.distanceTo(p) + p.distanceTo(current.next.point);
+            double oldDist = points.distance(current.id, current.next.id);
+            double newDist = points.distance(current.id, p) + points.distance(p, current.next.id);
             double increase = newDist - oldDist;
 
             // Se este for o menor aumento até agora, salva este local.
@@ -126,58 +244,49 @@ public class Tour {
 
         // Insere o novo nó na melhor posição encontrada.
         Node newNode = new Node();
-        newNode.point = p;
+        newNode.id = p;
         Node succ = bestPrev.next;
         newNode.next = succ;
         newNode.prev = bestPrev;
         bestPrev.next = newNode;
         succ.prev = newNode;
         count++;
-        if (useKdTree && nodeMap != null) {
-            Point2D p2d = new Point2D(p.x(), p.y());
-            kdTree.insert(p2d);
-            nodeMap.put(p2d, newNode);
-        }
+        addLength(minIncrease);
+        if (useKdTree) indexNode(newNode);
     }
 
     public void insertNearestKd(Point p) {
-        Point2D p2d = new Point2D(p.x(), p.y());
+        insertNearestKd(p.x(), p.y());
+    }
+
+    private void insertNearestKd(double x, double y) {
+        int p = points.add(x, y);
 
         // Caso base: se o tour está vazio, apenas insere.
         if (start == null) {
             start = new Node();
-            start.point = p;
+            start.id = p;
             start.next = start;
             start.prev = start;
             count = 1;
-            kdTree.insert(p2d); // Adiciona o primeiro ponto à árvore
-            if (nodeMap != null) nodeMap.put(p2d, start);
+            indexNode(start); // Adiciona o primeiro ponto à árvore
             return;
         }
         // 1. PRIMEIRO, encontra o ponto mais próximo que JÁ ESTÁ no tour.
-        Point2D nearestP2D = kdTree.nearest(p2d);
-        Node nearestNode = (nodeMap != null) ? nodeMap.get(nearestP2D) : null;
-        if (nearestNode == null) {
-            Node cur = start;
-            do {
-                if (Double.compare(cur.point.x(), nearestP2D.x()) == 0 && Double.compare(cur.point.y(), nearestP2D.y()) == 0) {
-                    nearestNode = cur;
-                    break;
-                }
-                cur = cur.next;
-            } while (cur != start);
-        }
+        // 2. O índice espacial devolve o id, que leva direto ao nó (sem busca no ciclo).
+        Node nearestNode = nodeOfKd[kdTree.nearest(x, y)];
         Node prevNode = nearestNode.prev;
+        int q = nearestNode.id;
 
         // 3. Calcula o custo de inserir 'p' ANTES vs DEPOIS do ponto mais próximo.
-        double costBefore = prevNode.point.distanceTo(p) + p.distanceTo(nearestNode.point)
-                - prevNode.point.distanceTo(nearestNode.point);
-        double costAfter = nearestNode.point.distanceTo(p) + p.distanceTo(nearestNode.next.point)
-                - nearestNode.point.distanceTo(nearestNode.next.point);
+        double costBefore = points.distance(prevNode.id, p) + points.distance(p, q)
+                - points.distance(prevNode.id, q);
+        double costAfter = points.distance(q, p) + points.distance(p, nearestNode.next.id)
+                - points.distance(q, nearestNode.next.id);
 
         // 4. AGORA, insere o novo nó na lista encadeada na posição de menor custo.
         Node newNode = new Node();
-        newNode.point = p;
+        newNode.id = p;
         if (costBefore < costAfter) {
             newNode.next = nearestNode;
             newNode.prev = prevNode;
@@ -191,14 +300,24 @@ public class Tour {
             nextNode.prev = newNode;
         }
         count++;
+        addLength(Math.min(costBefore, costAfter));
+
+        // 5. POR FIM, adiciona o novo ponto na Kd-Tree para futuras buscas.
+        indexNode(newNode);
+    }
 
-        // 5. POR FIM, adiciona o novo ponto na Kd-Tree e no mapa para futuras buscas.
-        kdTree.insert(p2d);
-        if (nodeMap != null) nodeMap.put(p2d, newNode);
+    // Insere o ponto do nó no índice espacial. Pontos repetidos mantêm o nó já indexado.
+    private void indexNode(Node node) {
+        int size = kdTree.size();
+        int k = kdTree.insert(points.x(node.id), points.y(node.id));
+        if (kdTree.size() == size) return;
+        if (k >= nodeOfKd.length) nodeOfKd = Arrays.copyOf(nodeOfKd, Math.max(2 * nodeOfKd.length, k + 1));
+        nodeOfKd[k] = node;
     }
 
     public static void main(String[] args) {
         Tour tour = new Tour();
+        tour.setVerify(true);
         tour.insertNearest(new Point(1.0, 1.0));
         tour.insertNearest(new Point(1.0, 4.0));
         tour.insertNearest(new Point(4.0, 4.0));
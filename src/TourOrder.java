@@ -0,0 +1,21 @@
+/**
+ * Ciclo sobre os ids 0..n-1 com as operações de que a busca local precisa.
+ * next/prev respeitam a orientação atual do ciclo.
+ */
+public interface TourOrder {
+
+    int size();
+
+    int next(int city);
+
+    int prev(int city);
+
+    // true se, percorrendo o ciclo a partir de a, b é encontrado antes de (ou junto com) c.
+    boolean between(int a, int b, int c);
+
+    // Inverte o caminho que vai de a até b no sentido de next().
+    void reverse(int a, int b);
+
+    // Cidades na ordem do ciclo.
+    int[] toArray();
+}
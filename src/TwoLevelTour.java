@@ -0,0 +1,377 @@
+import algs4.StdDraw;
+import java.util.Arrays;
+
+/**
+ * Ciclo em lista de dois níveis: as cidades ficam em segmentos de cerca de √n
+ * elementos, e cada segmento tem um bit de inversão e um número de ordem (rank)
+ * na lista circular de segmentos.
+ *
+ *   next/prev/between   O(1)
+ *   reverse(a, b)       O(√n): divide no máximo dois segmentos e inverte a ordem
+ *                       (e o bit) dos segmentos inteiros do caminho ou do complemento
+ *   insertNearest       O(√n) para abrir espaço dentro do segmento
+ *
+ * Os segmentos são reconstruídos do zero quando ficam fragmentados demais ou quando
+ * n cresce a ponto de √n mudar bastante; o custo O(n) é amortizado pelas operações.
+ */
+public class TwoLevelTour implements TourOrder {
+
+    private static final int MIN_SEGMENT = 8;
+
+    // Coordenadas por id de cidade.
+    private double[] xs;
+    private double[] ys;
+    private int n;
+
+    // Nível das cidades: segmento e posição física dentro dele.
+    private int[] seg;
+    private int[] idx;
+
+    // Nível dos segmentos.
+    private int[][] cities;
+    private int[] len;
+    private boolean[] reversed;
+    private int[] segNext;
+    private int[] segPrev;
+    private int[] rank;
+    private int segments;
+    private int target;
+    private int[] scratch;
+
+    // Índice espacial de insertNearest (ids da árvore -> ids de cidade).
+    private ArrayKdTree kdTree;
+    private int[] cityOfKd;
+
+    public TwoLevelTour() {
+        xs = new double[16];
+        ys = new double[16];
+        seg = new int[16];
+        idx = new int[16];
+        kdTree = new ArrayKdTree();
+        cityOfKd = new int[16];
+        rebuild(new int[0]);
+    }
+
+    // Ciclo sobre os pontos de "points", visitados na ordem dada.
+    public TwoLevelTour(PointSet points, int[] order) {
+        n = order.length;
+        xs = new double[Math.max(n, 1)];
+        ys = new double[Math.max(n, 1)];
+        for (int i = 0; i < n; i++) {
+            xs[i] = points.x(i);
+            ys[i] = points.y(i);
+        }
+        seg = new int[Math.max(n, 1)];
+        idx = new int[Math.max(n, 1)];
+        kdTree = ArrayKdTree.build(points);
+        cityOfKd = new int[Math.max(n, 1)];
+        for (int i = 0; i < n; i++) cityOfKd[i] = i;
+        rebuild(order);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public double length() {
+        if (n < 2) return 0.0;
+        double total = 0.0;
+        int c = first(0);
+        for (int i = 0; i < n; i++) {
+            int d = next(c);
+            total += distance(c, d);
+            c = d;
+        }
+        return total;
+    }
+
+    public void draw() {
+        if (n < 2) return;
+        int c = first(0);
+        for (int i = 0; i < n; i++) {
+            int d = next(c);
+            StdDraw.line(xs[c], ys[c], xs[d], ys[d]);
+            c = d;
+        }
+    }
+
+    public String toString() {
+        if (n == 0) return "(Tour vazio)";
+        StringBuilder sb = new StringBuilder();
+        for (int c : toArray()) {
+            sb.append(new Point(xs[c], ys[c])).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Mesma heurística de Tour.insertNearestKd: acha o ponto mais próximo já no ciclo
+     * e insere p antes ou depois dele, o que aumentar menos o comprimento.
+     */
+    public void insertNearest(Point p) {
+        int c = addCity(p.x(), p.y());
+        if (n == 1) {
+            cities[0][0] = c;
+            len[0] = 1;
+            seg[c] = 0;
+            idx[c] = 0;
+        } else {
+            int near = cityOfKd[kdTree.nearest(p.x(), p.y())];
+            int before = prev(near);
+            int after = next(near);
+            double costBefore = distance(before, c) + distance(c, near) - distance(before, near);
+            double costAfter = distance(near, c) + distance(c, after) - distance(near, after);
+            insertAfter(costBefore < costAfter ? before : near, c);
+        }
+        int size = kdTree.size();
+        int k = kdTree.insert(p.x(), p.y());
+        if (kdTree.size() > size) {
+            if (k == cityOfKd.length) cityOfKd = Arrays.copyOf(cityOfKd, 2 * k);
+            cityOfKd[k] = c;
+        }
+        if (n > 4 * target * target) rebuild(toArray());
+    }
+
+    public Point point(int city) {
+        return new Point(xs[city], ys[city]);
+    }
+
+    public int next(int city) {
+        int s = seg[city];
+        int i = idx[city];
+        if (reversed[s]) {
+            if (i > 0) return cities[s][i - 1];
+        } else {
+            if (i + 1 < len[s]) return cities[s][i + 1];
+        }
+        return first(segNext[s]);
+    }
+
+    public int prev(int city) {
+        int s = seg[city];
+        int i = idx[city];
+        if (reversed[s]) {
+            if (i + 1 < len[s]) return cities[s][i + 1];
+        } else {
+            if (i > 0) return cities[s][i - 1];
+        }
+        return last(segPrev[s]);
+    }
+
+    public boolean between(int a, int b, int c) {
+        long ka = key(a), kb = key(b), kc = key(c);
+        if (ka <= kc) return ka <= kb && kb <= kc;
+        return kb >= ka || kb <= kc;
+    }
+
+    public void reverse(int a, int b) {
+        if (a == b || next(b) == a) return; // um ponto só, ou o ciclo inteiro
+
+        if (seg[a] == seg[b]) {
+            if (pos(a) <= pos(b)) reverseInside(seg[a], a, b);
+            else reverseInside(seg[a], next(b), prev(a)); // o complemento está neste segmento
+            return;
+        }
+
+        if (segments + 2 > cities.length) rebuild(toArray());
+        splitBefore(a);
+        splitBefore(next(b));
+
+        int sa = seg[a];
+        int sb = seg[b];
+        int k = 1;
+        for (int s = sa; s != sb; s = segNext[s]) k++;
+        if (2 * k > segments) {
+            // Menos segmentos no complemento; inverter qualquer um dos dois dá o mesmo ciclo.
+            reverseSegments(segNext[sb], segPrev[sa], segments - k);
+        } else {
+            reverseSegments(sa, sb, k);
+        }
+    }
+
+    public int[] toArray() {
+        int[] order = new int[n];
+        if (n == 0) return order;
+        int c = first(0);
+        for (int i = 0; i < n; i++) {
+            order[i] = c;
+            c = next(c);
+        }
+        return order;
+    }
+
+    private int first(int s) {
+        return reversed[s] ? cities[s][len[s] - 1] : cities[s][0];
+    }
+
+    private int last(int s) {
+        return reversed[s] ? cities[s][0] : cities[s][len[s] - 1];
+    }
+
+    // Posição da cidade dentro do seu segmento, no sentido do ciclo.
+    private int pos(int city) {
+        int s = seg[city];
+        return reversed[s] ? len[s] - 1 - idx[city] : idx[city];
+    }
+
+    private long key(int city) {
+        return (long) rank[seg[city]] << 32 | pos(city);
+    }
+
+    private double distance(int a, int b) {
+        double dx = xs[a] - xs[b];
+        double dy = ys[a] - ys[b];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private int addCity(double x, double y) {
+        if (n == xs.length) {
+            int capacity = 2 * n;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            seg = Arrays.copyOf(seg, capacity);
+            idx = Arrays.copyOf(idx, capacity);
+        }
+        xs[n] = x;
+        ys[n] = y;
+        return n++;
+    }
+
+    // Insere a cidade c logo depois de a (no sentido do ciclo).
+    private void insertAfter(int a, int c) {
+        if (len[seg[a]] == cities[seg[a]].length) {
+            if (segments == cities.length) {
+                n--;
+                rebuild(toArray());
+                n++;
+            }
+            int s = seg[a];
+            int[] arr = cities[s];
+            int middle = reversed[s] ? arr[len[s] - 1 - len[s] / 2] : arr[len[s] / 2];
+            splitBefore(middle);
+        }
+        int s = seg[a];
+        int p = reversed[s] ? idx[a] : idx[a] + 1;
+        int[] arr = cities[s];
+        System.arraycopy(arr, p, arr, p + 1, len[s] - p);
+        arr[p] = c;
+        len[s]++;
+        for (int i = p; i < len[s]; i++) {
+            seg[arr[i]] = s;
+            idx[arr[i]] = i;
+        }
+    }
+
+    // Faz a cidade c ser a primeira do seu segmento: o trecho de c até o fim do segmento
+    // (no sentido do ciclo) vai para um segmento novo, ligado logo depois.
+    private void splitBefore(int c) {
+        int s = seg[c];
+        int p = pos(c);
+        if (p == 0) return;
+        int t = segments++;
+        int moved = len[s] - p;
+        int[] from = cities[s];
+        int[] to = cities[t];
+        if (reversed[s]) {
+            // Trecho final no ciclo = índices físicos [0, moved).
+            System.arraycopy(from, 0, to, 0, moved);
+            System.arraycopy(from, moved, from, 0, p);
+            for (int i = 0; i < p; i++) idx[from[i]] = i;
+        } else {
+            System.arraycopy(from, p, to, 0, moved);
+        }
+        len[s] = p;
+        len[t] = moved;
+        reversed[t] = reversed[s];
+        for (int i = 0; i < moved; i++) {
+            seg[to[i]] = t;
+            idx[to[i]] = i;
+        }
+        int after = segNext[s];
+        segNext[s] = t;
+        segPrev[t] = s;
+        segNext[t] = after;
+        segPrev[after] = t;
+        renumber();
+    }
+
+    // Inverte o trecho a..b de um mesmo segmento (a antes de b no sentido do ciclo).
+    private void reverseInside(int s, int a, int b) {
+        int[] arr = cities[s];
+        int lo = Math.min(idx[a], idx[b]);
+        int hi = Math.max(idx[a], idx[b]);
+        while (lo < hi) {
+            int x = arr[lo];
+            int y = arr[hi];
+            arr[lo] = y;
+            idx[y] = lo++;
+            arr[hi] = x;
+            idx[x] = hi--;
+        }
+    }
+
+    // Inverte a ordem dos k segmentos de s1 até s2 e o bit de cada um.
+    // Os ranks ocupados pelo trecho são reaproveitados em ordem inversa.
+    private void reverseSegments(int s1, int s2, int k) {
+        int before = segPrev[s1];
+        int after = segNext[s2];
+        int s = s1;
+        for (int i = 0; i < k; i++) {
+            scratch[i] = s;
+            s = segNext[s];
+        }
+        for (int i = 0; i < k / 2; i++) {
+            int x = scratch[i];
+            int y = scratch[k - 1 - i];
+            int r = rank[x];
+            rank[x] = rank[y];
+            rank[y] = r;
+        }
+        int left = before;
+        for (int i = k - 1; i >= 0; i--) {
+            int t = scratch[i];
+            reversed[t] = !reversed[t];
+            segNext[left] = t;
+            segPrev[t] = left;
+            left = t;
+        }
+        segNext[left] = after;
+        segPrev[after] = left;
+    }
+
+    private void renumber() {
+        int s = 0;
+        for (int r = 0; r < segments; r++) {
+            rank[s] = r;
+            s = segNext[s];
+        }
+    }
+
+    // Redistribui as cidades, na ordem dada, em segmentos de tamanho ~√n.
+    private void rebuild(int[] order) {
+        int count = order.length;
+        target = Math.max(MIN_SEGMENT, (int) Math.ceil(Math.sqrt(count)));
+        int used = Math.max(1, (count + target - 1) / target);
+        int capacity = Math.max(2 * used, 4 * target) + 8;
+        cities = new int[capacity][2 * target + 2];
+        len = new int[capacity];
+        reversed = new boolean[capacity];
+        segNext = new int[capacity];
+        segPrev = new int[capacity];
+        rank = new int[capacity];
+        scratch = new int[capacity];
+        segments = used;
+        for (int s = 0; s < used; s++) {
+            segNext[s] = (s + 1) % used;
+            segPrev[s] = (s + used - 1) % used;
+            rank[s] = s;
+        }
+        for (int i = 0; i < count; i++) {
+            int s = i / target;
+            int c = order[i];
+            cities[s][len[s]] = c;
+            seg[c] = s;
+            idx[c] = len[s]++;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Busca local 2-opt com listas de candidatos e bits "don't look".
+ *
+ * Para cada cidade a ativa e cada uma das suas arestas (a, b), com b = next(a) ou prev(a),
+ * tenta ligar a a um vizinho c da lista de candidatos. Como a lista está em ordem
+ * crescente de distância, a busca para assim que dist(a, c) >= dist(a, b): a partir daí
+ * a troca não pode diminuir o ciclo. Cidades cujas arestas não mudaram não são
+ * examinadas de novo (fila de ativas), o que deixa cada passada quase linear.
+ */
+public class TwoOpt {
+
+    private static final double EPS = 1e-10;
+
+    private final DistanceCache distances;
+    private final CandidateGraph candidates;
+
+    public TwoOpt(PointSet points, CandidateGraph candidates) {
+        this(new DistanceCache(points, candidates));
+    }
+
+    // Compartilha as distâncias já calculadas (por exemplo, entre 2-opt e Or-opt).
+    public TwoOpt(DistanceCache distances) {
+        this.distances = distances;
+        this.candidates = distances.candidates();
+    }
+
+    /**
+     * Aplica movimentos 2-opt de melhoria até não haver mais nenhum.
+     * Devolve o quanto o comprimento do ciclo diminuiu.
+     */
+    public double optimize(TourOrder tour) {
+        int n = tour.size();
+        if (n < 5) return 0.0;
+
+        ActiveQueue queue = new ActiveQueue(n);
+        for (int city : tour.toArray()) {
+            queue.push(city);
+        }
+
+        double gain = 0.0;
+        while (!queue.isEmpty()) {
+            int a = queue.pop();
+            double g = improveCity(tour, a, queue);
+            if (g > 0) {
+                gain += g;
+                queue.push(a);
+            }
+        }
+        return gain;
+    }
+
+    // Tenta um movimento a partir de a; devolve o ganho (0 se nenhum foi aplicado).
+    private double improveCity(TourOrder tour, int a, ActiveQueue queue) {
+        for (int dir = 0; dir < 2; dir++) {
+            boolean forward = dir == 0;
+            int b = forward ? tour.next(a) : tour.prev(a);
+            double dab = dist(a, b);
+            for (int j = candidates.start(a), end = candidates.end(a); j < end; j++) {
+                int c = candidates.target(j);
+                double dac = distances.neighbor(a, j, c);
+                if (dac >= dab - EPS) break;
+                int d = forward ? tour.next(c) : tour.prev(c);
+                if (c == b || d == a) continue;
+                double delta = dab + dist(c, d) - dac - dist(b, d);
+                if (delta > EPS) {
+                    // Arestas (a,b),(c,d) viram (a,c),(b,d).
+                    if (forward) tour.reverse(b, c);
+                    else tour.reverse(a, d);
+                    queue.push(b);
+                    queue.push(c);
+                    queue.push(d);
+                    return delta;
+                }
+            }
+        }
+        return 0.0;
+    }
+
+    private double dist(int i, int j) {
+        return distances.dist(i, j);
+    }
+}
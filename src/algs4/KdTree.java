@@ -1,17 +1,28 @@
 package algs4;
 
+import java.util.Arrays;
+
+/**
+ * delete() marca o nó como removido; cada nó conta os pontos vivos da sua subárvore,
+ * e nearest() ignora subárvores sem nenhum. Com mais da metade dos nós removidos a
+ * árvore é reconstruída, balanceada, só com os vivos. size() conta os pontos vivos.
+ */
 public class KdTree {
 
     private static final boolean VERTICAL = true;
+    private static final double REBUILD_FRACTION = 0.5;
 
     private Node root;
     private int size;
+    private int dead;
 
     private static class Node {
         private final Point2D p;
         private final boolean orientation;
         private Node lb;
         private Node rt;
+        private int live = 1;
+        private boolean deleted;
 
         public Node(Point2D p, boolean orientation) {
             this.p = p;
@@ -43,14 +54,79 @@ public class KdTree {
             return new Node(p, orientation);
         }
         if (node.p.equals(p)) {
+            if (node.deleted) {
+                node.deleted = false;
+                node.live++;
+                dead--;
+                size++;
+            }
             return node;
         }
+        int before = size;
         double cmp = compare(p, node.p, orientation);
         if (cmp < 0) {
             node.lb = insert(node.lb, p, !orientation);
         } else {
             node.rt = insert(node.rt, p, !orientation);
         }
+        if (size > before) node.live++;
+        return node;
+    }
+
+    /**
+     * Remove p (marca o nó como removido). Devolve false se p não estava na árvore.
+     */
+    public boolean delete(Point2D p) {
+        if (p == null) throw new IllegalArgumentException("O ponto não pode ser nulo.");
+        if (!delete(root, p)) return false;
+        size--;
+        dead++;
+        if (dead > REBUILD_FRACTION * (dead + size)) rebuild();
+        return true;
+    }
+
+    private boolean delete(Node node, Point2D p) {
+        if (node == null) return false;
+        boolean deleted;
+        if (node.p.equals(p)) {
+            if (node.deleted) return false;
+            node.deleted = true;
+            deleted = true;
+        } else if (compare(p, node.p, node.orientation) < 0) {
+            deleted = delete(node.lb, p);
+        } else {
+            deleted = delete(node.rt, p);
+        }
+        if (deleted) node.live--;
+        return deleted;
+    }
+
+    // Refaz a árvore, balanceada pela mediana, só com os pontos vivos.
+    private void rebuild() {
+        Point2D[] points = new Point2D[size];
+        collect(root, points, 0);
+        root = build(points, 0, size, VERTICAL);
+        dead = 0;
+    }
+
+    private static int collect(Node node, Point2D[] points, int count) {
+        if (node == null || node.live == 0) return count;
+        if (!node.deleted) points[count++] = node.p;
+        count = collect(node.lb, points, count);
+        return collect(node.rt, points, count);
+    }
+
+    // Ordena pela coordenada da divisão e usa a primeira ocorrência da mediana, para que
+    // os iguais fiquem à direita, como em insert().
+    private static Node build(Point2D[] points, int lo, int hi, boolean orientation) {
+        if (lo >= hi) return null;
+        Arrays.sort(points, lo, hi, orientation == VERTICAL ? Point2D.X_ORDER : Point2D.Y_ORDER);
+        int mid = (lo + hi) >>> 1;
+        while (mid > lo && compare(points[mid - 1], points[mid], orientation) == 0) mid--;
+        Node node = new Node(points[mid], orientation);
+        node.lb = build(points, lo, mid, !orientation);
+        node.rt = build(points, mid + 1, hi, !orientation);
+        node.live = hi - lo;
         return node;
     }
 
@@ -61,7 +137,7 @@ public class KdTree {
 
     private boolean contains(Node node, Point2D p) {
         if (node == null) return false;
-        if (node.p.equals(p)) return true;
+        if (node.p.equals(p)) return !node.deleted;
         double cmp = compare(p, node.p, node.orientation);
         if (cmp < 0) return contains(node.lb, p);
         else return contains(node.rt, p);
@@ -70,13 +146,14 @@ public class KdTree {
     public Point2D nearest(Point2D p) {
         if (p == null) throw new IllegalArgumentException("O ponto não pode ser nulo.");
         if (isEmpty()) return null;
-        return nearest(root, p, root.p);
+        return nearest(root, p, null);
     }
 
     private Point2D nearest(Node node, Point2D queryPoint, Point2D champion) {
-        if (node == null) return champion;
+        if (node == null || node.live == 0) return champion;
 
-        if (queryPoint.distanceSquaredTo(node.p) < queryPoint.distanceSquaredTo(champion)) {
+        if (!node.deleted && (champion == null
+                || queryPoint.distanceSquaredTo(node.p) < queryPoint.distanceSquaredTo(champion))) {
             champion = node.p;
         }
 
@@ -86,7 +163,8 @@ public class KdTree {
 
         champion = nearest(first, queryPoint, champion);
 
-        double distanceToChampion = queryPoint.distanceSquaredTo(champion);
+        double distanceToChampion = champion == null
+            ? Double.POSITIVE_INFINITY : queryPoint.distanceSquaredTo(champion);
         double distanceToPartition = (node.orientation == VERTICAL)
             ? (node.p.x() - queryPoint.x()) * (node.p.x() - queryPoint.x())
             : (node.p.y() - queryPoint.y()) * (node.p.y() - queryPoint.y());
@@ -97,7 +175,7 @@ public class KdTree {
         return champion;
     }
 
-    private double compare(Point2D p1, Point2D p2, boolean orientation) {
+    private static double compare(Point2D p1, Point2D p2, boolean orientation) {
         return (orientation == VERTICAL) ? (p1.x() - p2.x()) : (p1.y() - p2.y());
     }
 }